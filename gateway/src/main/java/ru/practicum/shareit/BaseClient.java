@@ -1,103 +1,152 @@
 package ru.practicum.shareit;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static ru.practicum.shareit.Constants.USER_ID;
 
-public class BaseClient {
+@Slf4j
+public class BaseClient implements ServerClient<ResponseEntity<Object>> {
+    /**
+     * Заголовки соединения между сервером и шлюзом, которые не передаются клиенту:
+     * длину и кодирование ответа клиенту определяет сам шлюз.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer", "upgrade",
+            "content-length", "date"
+    );
+
     protected final RestTemplate rest;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, RequestCoalescer coalescer, ResponseCache responseCache) {
         this.rest = rest;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
-        return get(path, null, null);
-    }
-
-    protected ResponseEntity<Object> get(String path, long userId) {
-        return get(path, userId, null);
-    }
-
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    @Override
+    public ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
-        return post(path, null, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
-        return post(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    @Override
+    public <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
-        return put(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
-        return patch(path, null, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
-        return patch(path, userId, null, null);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
-        return patch(path, userId, null, body);
-    }
-
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    @Override
+    public <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
-        return delete(path, null, null);
+    @Override
+    public ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
-        return delete(path, userId, null);
+    /**
+     * Передаёт ответ сервера клиенту по мере получения, без буферизации. Запрос к серверу выполняется
+     * до ответа клиенту, поэтому ошибка сервера передаётся клиенту со своим статусом и телом. Обрыв
+     * ответа сервера во время передачи прерывает и ответ клиенту, чтобы неполная выгрузка
+     * не выглядела завершённой.
+     */
+    public ResponseEntity<StreamingResponseBody> stream(String path, MediaType accept) {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(accept));
+            response = request.execute();
+            ResponseEntity.BodyBuilder gatewayResponse = ResponseEntity.status(response.getStatusCode())
+                    .headers(toGatewayHeaders(response.getHeaders()));
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                return gatewayResponse.body(out -> out.write(body));
+            }
+            ClientHttpResponse serverResponse = response;
+            return gatewayResponse.body(out -> {
+                try (serverResponse) {
+                    StreamUtils.copy(serverResponse.getBody(), out);
+                } catch (IOException e) {
+                    log.error("Передача ответа сервера прервана, uri={}: {}", uri, e.getMessage());
+                    throw e;
+                }
+            });
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("Ошибка запроса к серверу " + uri + ": " + e.getMessage(), e);
+        }
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    /**
+     * GET-запросы обслуживаются кэшем ответов, а одинаковые одновременные получают ответ одного
+     * обращения к серверу. Успешное изменение сбрасывает затронутые ответы в кэше.
+     */
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        if (method != HttpMethod.GET) {
+            ResponseEntity<Object> response = exchange(method, uri, userId, body, null);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                responseCache.invalidate(uri);
+            }
+            return response;
+        }
+        CompletableFuture<ResponseEntity<Object>> response = coalescer.coalesce(uri, userId,
+                () -> responseCache.get(uri, userId,
+                        etag -> CompletableFuture.completedFuture(exchange(method, uri, userId, body, etag))));
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Передаёт ответ сервера клиенту как есть: статус, заголовки и байты тела
+     * копируются без разбора JSON и повторной сериализации.
+     */
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, URI uri, Long userId, @Nullable T body, @Nullable String etag) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            return rest.execute(uri, method, rest.httpEntityCallback(requestEntity), BaseClient::toGatewayResponse);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return toGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -107,17 +156,24 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static ResponseEntity<Object> toGatewayResponse(ClientHttpResponse response) throws IOException {
+        return toGatewayResponse(response.getStatusCode(), response.getHeaders(), StreamUtils.copyToByteArray(response.getBody()));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    static ResponseEntity<Object> toGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders, byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(toGatewayHeaders(serverHeaders));
+        return body.length > 0 ? responseBuilder.body(body) : responseBuilder.build();
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    static HttpHeaders toGatewayHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
         }
-
-        return responseBuilder.build();
+        return headers;
     }
 }
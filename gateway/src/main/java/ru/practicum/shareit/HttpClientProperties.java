@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений шлюза с сервером.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /**
+     * Максимум соединений в пуле.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимум соединений к одному адресу. Шлюз ходит только на сервер, поэтому лимит близок к общему.
+     */
+    private int maxPerRoute = 200;
+
+    /**
+     * Максимум запросов, ожидающих свободного соединения, в реактивном режиме. Сверх него запрос
+     * сразу отклоняется, а не копится в очереди.
+     */
+    private int maxPending = 1000;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Таймаут ожидания данных от сервера.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Таймаут ожидания свободного соединения в пуле.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Время жизни простаивающего соединения, если сервер не прислал заголовок Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Соединения, простаивающие дольше, закрываются фоновым потоком.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(60);
+
+    /**
+     * Простаивавшее дольше соединение проверяется перед выдачей из пула.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
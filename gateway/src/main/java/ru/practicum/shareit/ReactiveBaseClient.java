@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий аналог {@link BaseClient}: тот же запрос к серверу через WebClient,
+ * ответ сервера передаётся клиенту как есть.
+ */
+@Slf4j
+public class ReactiveBaseClient implements ServerClient<Mono<ResponseEntity<Object>>> {
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final WebClient webClient;
+    private final UriBuilderFactory uriFactory;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
+
+    public ReactiveBaseClient(UriBuilderFactory uriFactory, WebClient.Builder builder,
+                              RequestCoalescer coalescer, ResponseCache responseCache) {
+        this.webClient = builder.uriBuilderFactory(uriFactory).build();
+        this.uriFactory = uriFactory;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    /**
+     * Передаёт ответ сервера клиенту буферами по мере получения. Ошибка сервера до начала передачи
+     * возвращается клиенту со статусом сервера. Обрыв ответа сервера во время передачи прерывает
+     * и ответ клиенту, чтобы неполная выгрузка не выглядела завершённой.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, MediaType accept) {
+        return webClient.get()
+                .uri(path)
+                .accept(accept)
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(BaseClient.toGatewayHeaders(response.getHeaders()))
+                        .body(Objects.requireNonNull(response.getBody())
+                                .doOnError(e -> log.error("Передача ответа сервера прервана, path={}: {}",
+                                        path, e.getMessage()))));
+    }
+
+    /**
+     * Как в {@link BaseClient}: GET-запросы обслуживаются кэшем ответов и объединяются, успешное изменение
+     * сбрасывает затронутые ответы. Каждый подписчик получает свою копию ожидания, поэтому отмена
+     * одного запроса не отменяет ответ для остальных.
+     */
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return Mono.defer(() -> {
+            URI uri = uriFactory.expand(path, parameters != null ? parameters : Map.of());
+            if (method != HttpMethod.GET) {
+                return exchange(method, uri, userId, body, null)
+                        .doOnNext(response -> {
+                            if (response.getStatusCode().is2xxSuccessful()) {
+                                responseCache.invalidate(uri);
+                            }
+                        });
+            }
+            return Mono.fromFuture(coalescer.coalesce(uri, userId,
+                    () -> responseCache.get(uri, userId,
+                            etag -> exchange(method, uri, userId, body, etag).toFuture())).copy());
+        });
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, Long userId, @Nullable T body, @Nullable String etag) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    headers.addAll(BaseClient.defaultHeaders(userId));
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                });
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(EMPTY_BODY)
+                        .map(bytes -> BaseClient.toGatewayResponse(response.statusCode(),
+                                response.headers().asHttpHeaders(), bytes)));
+    }
+}
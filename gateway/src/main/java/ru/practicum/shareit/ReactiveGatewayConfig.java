@@ -0,0 +1,59 @@
+package ru.practicum.shareit;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Реактивный режим шлюза: Netty вместо Tomcat и неблокирующий WebClient до сервера.
+ * Запросы к серверу ограничены пулом соединений и очередью ожидания из настроек shareit-server.http.*,
+ * метрики пула публикуются как reactor.netty.connection.provider.* с тегом name=shareit-server.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveGatewayConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    /**
+     * Tomcat тоже есть в classpath и выбирается Spring Boot первым, поэтому сервер задаётся явно.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Соединение, простаивавшее дольше keep-alive, закрывается при выдаче из пула, а фоновая
+     * очистка простаивающих соединений выполняется с периодом max-idle-time.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireMaxCount(properties.getMaxPending())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Подключается ко всем WebClient.Builder, которые создаёт Spring Boot.
+     */
+    @Bean
+    public ReactorClientHttpConnector shareItServerConnector(ConnectionProvider shareItServerConnectionProvider,
+                                                             HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
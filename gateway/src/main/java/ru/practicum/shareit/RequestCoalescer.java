@@ -0,0 +1,96 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одинаковые одновременные GET-запросы к серверу: пока первый запрос выполняется,
+ * остальные ждут его ответа вместо собственного обращения к серверу. Запросы одинаковы, если
+ * совпадают адрес с параметрами и ID пользователя, который передаётся серверу.
+ * Ответ, пришедший после завершения запроса, не переиспользуется — это не кэш.
+ */
+@Component
+public class RequestCoalescer {
+    private static final String METRIC_NAME = "gateway.coalescing";
+
+    private final boolean enabled;
+    private final Map<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${gateway.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.leaders = Counter.builder(METRIC_NAME + ".requests")
+                .tag("result", "leader")
+                .description("Запросы, отправленные серверу")
+                .register(meterRegistry);
+        this.followers = Counter.builder(METRIC_NAME + ".requests")
+                .tag("result", "follower")
+                .description("Запросы, получившие ответ на одновременный такой же запрос")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".ratio", this, RequestCoalescer::ratio)
+                .description("Доля запросов, обслуженных без обращения к серверу")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".in-flight", inFlight, Map::size)
+                .description("Выполняющиеся запросы, к которым можно присоединиться")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает ответ на уже выполняющийся такой же запрос или выполняет call.
+     */
+    public CompletableFuture<ResponseEntity<Object>> coalesce(URI uri, @Nullable Long userId,
+                                                              Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Key key = new Key(uri, userId);
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, response);
+        if (existing != null) {
+            followers.increment();
+            return existing;
+        }
+        leaders.increment();
+        try {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(key, response);
+                if (error != null) {
+                    response.completeExceptionally(error);
+                } else {
+                    response.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, response);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private double ratio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final URI uri;
+        private final Long userId;
+    }
+}
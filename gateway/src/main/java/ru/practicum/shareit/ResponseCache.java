@@ -0,0 +1,193 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш GET-ответов сервера с коротким временем свежести по префиксу пути. Ключ — адрес запроса
+ * вместе с параметрами и ID пользователя. Устаревший ответ с ETag перепроверяется запросом
+ * с If-None-Match, и при ответе 304 тело берётся из кэша. Успешное изменение через шлюз сбрасывает
+ * ответы по своему префиксу и зависимым от него; изменения в обход шлюза видны после истечения свежести.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    static final String CACHE_NAME = "gateway.response";
+
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter fresh;
+    private final Counter notModified;
+    private final Counter modified;
+    private final Counter misses;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, Entry entry) -> key.uri.toString().length() + entry.bodyLength())
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.fresh = lookups(meterRegistry, "fresh");
+        this.notModified = lookups(meterRegistry, "not-modified");
+        this.modified = lookups(meterRegistry, "modified");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    /**
+     * Возвращает свежий ответ из кэша или выполняет fetch, передавая ETag устаревшего ответа
+     * для If-None-Match либо null.
+     */
+    public CompletableFuture<ResponseEntity<Object>> get(URI uri, @Nullable Long userId,
+                                                         Function<String, CompletableFuture<ResponseEntity<Object>>> fetch) {
+        Duration ttl = properties.isEnabled() ? ttlFor(uri.getPath()) : null;
+        if (ttl == null) {
+            return fetch.apply(null);
+        }
+        Key key = new Key(uri, userId);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.isFresh()) {
+            fresh.increment();
+            return CompletableFuture.completedFuture(cached.response);
+        }
+        long fetchedInGeneration = generation.get();
+        String etag = cached != null ? cached.etag : null;
+        return fetch.apply(etag).thenApply(response -> {
+            if (etag != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                notModified.increment();
+                store(key, cached.response, ttl, fetchedInGeneration);
+                return cached.response;
+            }
+            (etag != null ? modified : misses).increment();
+            if (response.getStatusCode() == HttpStatus.OK) {
+                store(key, response, ttl, fetchedInGeneration);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Сбрасывает ответы по первому сегменту пути изменённого ресурса и зависимым от него префиксам.
+     */
+    public void invalidate(URI uri) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String path = uri.getPath();
+        int end = path.indexOf('/', 1);
+        String resource = end < 0 ? path : path.substring(0, end);
+        List<String> prefixes = new ArrayList<>(properties.getInvalidates().getOrDefault(resource, List.of()));
+        prefixes.add(resource);
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> prefixes.stream().anyMatch(prefix -> matches(key.uri.getPath(), prefix)));
+    }
+
+    /**
+     * Ответ, загруженный до сброса, не сохраняется: иначе он пережил бы изменение, которое его отменило.
+     */
+    private void store(Key key, ResponseEntity<Object> response, Duration ttl, long fetchedInGeneration) {
+        if (generation.get() != fetchedInGeneration) {
+            return;
+        }
+        String etag = response.getHeaders().getETag();
+        Duration retention = etag != null ? ttl.plus(properties.getStaleRetention()) : ttl;
+        cache.put(key, new Entry(response, etag, System.nanoTime() + ttl.toNanos(), retention.toNanos()));
+        if (generation.get() != fetchedInGeneration) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Nullable
+    private Duration ttlFor(String path) {
+        String bestPrefix = null;
+        for (String prefix : properties.getTtl().keySet()) {
+            if (matches(path, prefix) && (bestPrefix == null || prefix.length() > bestPrefix.length())) {
+                bestPrefix = prefix;
+            }
+        }
+        if (bestPrefix == null) {
+            return null;
+        }
+        Duration ttl = properties.getTtl().get(bestPrefix);
+        return ttl.isNegative() || ttl.isZero() ? null : ttl;
+    }
+
+    private static boolean matches(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix.endsWith("/") ? prefix : prefix + "/");
+    }
+
+    /**
+     * fresh — ответ из кэша, not-modified и modified — перепроверка устаревшего ответа, miss — ответа в кэше не было.
+     */
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(CACHE_NAME + ".lookups")
+                .tag("result", result)
+                .description("Обращения к кэшу ответов для кэшируемых путей")
+                .register(meterRegistry);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final URI uri;
+        private final Long userId;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final String etag;
+        private final long freshUntilNanos;
+        private final long retentionNanos;
+
+        boolean isFresh() {
+            return System.nanoTime() - freshUntilNanos < 0;
+        }
+
+        int bodyLength() {
+            return response.getBody() instanceof byte[] ? ((byte[]) response.getBody()).length : 0;
+        }
+    }
+
+    /**
+     * Запись без ETag удаляется по истечении свежести, с ETag — хранится ещё stale-retention для перепроверки.
+     */
+    private static class EntryExpiry implements Expiry<Key, Entry> {
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.retentionNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return entry.retentionNanos;
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
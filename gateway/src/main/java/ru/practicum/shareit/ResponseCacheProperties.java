@@ -0,0 +1,41 @@
+package ru.practicum.shareit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки кэша ответов сервера в шлюзе.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+
+    /**
+     * Предельный суммарный размер тел закэшированных ответов.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Сколько устаревший ответ с ETag хранится для перепроверки через If-None-Match.
+     */
+    private Duration staleRetention = Duration.ofMinutes(5);
+
+    /**
+     * Время свежести ответа по префиксу пути на сервере, выбирается самый длинный подходящий префикс.
+     * Ответы на пути без префикса в списке не кэшируются.
+     */
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    /**
+     * Префиксы, которые сбрасываются при изменении через префикс-ключ, помимо него самого:
+     * например, новая вещь меняет ответы на запросы, к которым она добавлена.
+     */
+    private Map<String, List<String>> invalidates = new HashMap<>();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Запросы шлюза к серверу. R — тип ответа: {@code ResponseEntity<Object>} у {@link BaseClient}
+ * и {@code Mono<ResponseEntity<Object>>} у {@link ReactiveBaseClient}, поэтому пути и параметры
+ * запросов к серверу описываются один раз для обоих режимов шлюза.
+ */
+public interface ServerClient<R> {
+
+    R get(String path, Long userId, @Nullable Map<String, Object> parameters);
+
+    <T> R post(String path, Long userId, @Nullable Map<String, Object> parameters, T body);
+
+    <T> R patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body);
+
+    R delete(String path, Long userId, @Nullable Map<String, Object> parameters);
+
+    default R get(String path) {
+        return get(path, null, null);
+    }
+
+    default R get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    default <T> R post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    default <T> R post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    default <T> R patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    default <T> R patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    default R delete(String path) {
+        return delete(path, null, null);
+    }
+}
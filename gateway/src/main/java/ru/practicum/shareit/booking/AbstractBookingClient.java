@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.ServerClient;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запросы к серверу по бронированиям, общие для блокирующего и реактивного режимов шлюза.
+ */
+public abstract class AbstractBookingClient<R> {
+    static final String API_PREFIX = "/bookings";
+
+    private final ServerClient<R> server;
+
+    protected AbstractBookingClient(ServerClient<R> server) {
+        this.server = server;
+    }
+
+    public R addBooking(long userId, BookItemRequestDto requestDto) {
+        return server.post("", userId, requestDto);
+    }
+
+    public R addBookings(long userId, List<BookItemRequestDto> requestDtos) {
+        return server.post("/batch", userId, requestDtos);
+    }
+
+    public R approveBooking(long userId, int bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return server.patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+    }
+
+    public R approveBookings(long userId, List<Integer> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return server.patch("/approve-batch?approved={approved}", userId, parameters, bookingIds);
+    }
+
+    public R getBooking(long userId, int bookingId) {
+        return server.get("/" + bookingId, userId);
+    }
+
+    public R getUserBookings(long userId, BookingState state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return server.get("?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public R getItemBookings(long userId, BookingState state, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return server.get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public R getUserBookingsAfter(long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return server.get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public R getItemBookingsAfter(long userId, BookingState state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return server.get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+}
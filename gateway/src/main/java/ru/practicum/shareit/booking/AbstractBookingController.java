@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.UnsupportedStateException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static ru.practicum.shareit.Constants.USER_ID;
+
+/**
+ * Проверка запросов по бронированиям и передача их серверу, общие для блокирующего и реактивного режимов шлюза.
+ */
+@Slf4j
+@Validated
+public abstract class AbstractBookingController<R> {
+	private final AbstractBookingClient<R> bookingClient;
+
+	protected AbstractBookingController(AbstractBookingClient<R> bookingClient) {
+		this.bookingClient = bookingClient;
+	}
+
+	@PostMapping
+	public R addBooking(@RequestHeader(USER_ID) @Positive long userId,
+						@RequestBody @Valid BookItemRequestDto requestDto) {
+		log.info("Запрос на создание бронирования {}, userId={}", requestDto, userId);
+		return bookingClient.addBooking(userId, requestDto);
+	}
+
+	@PostMapping("/batch")
+	public R addBookings(@RequestHeader(USER_ID) @Positive long userId,
+						 @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookItemRequestDto> requestDtos) {
+		log.info("Запрос на пакетное создание бронирований, count={}, userId={}", requestDtos.size(), userId);
+		return bookingClient.addBookings(userId, requestDtos);
+	}
+
+	@PatchMapping("/{bookingId}")
+	public R approveBooking(@RequestHeader(USER_ID) @Positive long userId,
+							@PathVariable @Positive int bookingId,
+							@RequestParam boolean approved) {
+		log.info("Запрос на подтверждение/отклонение бронирования Id={}, userId={}", bookingId, userId);
+		return bookingClient.approveBooking(userId, bookingId, approved);
+	}
+
+	@PatchMapping("/approve-batch")
+	public R approveBookings(@RequestHeader(USER_ID) @Positive long userId,
+							 @RequestBody @NotEmpty @Size(max = 100) List<@Positive Integer> bookingIds,
+							 @RequestParam boolean approved) {
+		log.info("Запрос на подтверждение/отклонение бронирований Ids={}, userId={}", bookingIds, userId);
+		return bookingClient.approveBookings(userId, bookingIds, approved);
+	}
+
+	@GetMapping("/{bookingId}")
+	public R getBooking(@RequestHeader(USER_ID) @Positive long userId,
+						@PathVariable @Positive int bookingId) {
+		log.info("Запрос на получение бронирования {}, userId={}", bookingId, userId);
+		return bookingClient.getBooking(userId, bookingId);
+	}
+
+	@GetMapping
+	public R getUserBookings(@RequestHeader(USER_ID) long userId,
+							 @RequestParam(name = "state", defaultValue = "all") String stateParam,
+							 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+							 @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+							 @RequestParam(name = "cursor", required = false) String cursor) {
+		BookingState state = toState(stateParam);
+		if (cursor != null) {
+			log.info("Запрос на получение бронирований со статусом {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+			return bookingClient.getUserBookingsAfter(userId, state, cursor, size);
+		}
+		log.info("Запрос на получение бронирований со статусом {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+		return bookingClient.getUserBookings(userId, state, from, size);
+	}
+
+	@GetMapping("/owner")
+	public R getItemBookings(@RequestHeader(USER_ID) long userId,
+							 @RequestParam(name = "state", defaultValue = "all") String stateParam,
+							 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+							 @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+							 @RequestParam(name = "cursor", required = false) String cursor) {
+		BookingState state = toState(stateParam);
+		if (cursor != null) {
+			log.info("Запрос на получение бронирований со статусом {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+			return bookingClient.getItemBookingsAfter(userId, state, cursor, size);
+		}
+		log.info("Запрос на получение бронирований со статусом {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+		return bookingClient.getItemBookings(userId, state, from, size);
+	}
+
+	private static BookingState toState(String stateParam) {
+		return BookingState.from(stateParam)
+				.orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateParam));
+	}
+}
@@ -3,60 +3,29 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.BaseClient;
-
-import java.util.Map;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
 
 @Service
-public class BookingClient extends BaseClient {
-    private static final String API_PREFIX = "/bookings";
+@Profile("!reactive")
+public class BookingClient extends AbstractBookingClient<ResponseEntity<Object>> {
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer,
+                         ResponseCache responseCache) {
+        super(new BaseClient(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
-
-
-    public ResponseEntity<Object> addBooking(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
-    }
-
-    public ResponseEntity<Object> approveBooking(long userId, int bookingId, boolean approved) {
-        Map<String, Object> parameters = Map.of(
-                "approved", approved
-        );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
-    }
-
-    public ResponseEntity<Object> getBooking(long userId, int bookingId) {
-        return get("/" + bookingId, userId);
-    }
-
-    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
-    }
-
-    public ResponseEntity<Object> getItemBookings(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+                .requestFactory(() -> requestFactory)
+                .build(),
+                coalescer,
+                responseCache
+        ));
     }
 }
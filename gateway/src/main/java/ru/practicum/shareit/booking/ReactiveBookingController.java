@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/bookings")
+public class ReactiveBookingController extends AbstractBookingController<Mono<ResponseEntity<Object>>> {
+
+	public ReactiveBookingController(ReactiveBookingClient bookingClient) {
+		super(bookingClient);
+	}
+}
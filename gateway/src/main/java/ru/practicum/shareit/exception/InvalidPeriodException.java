@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class InvalidPeriodException extends IllegalArgumentException {
+    public InvalidPeriodException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.ServerClient;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Запросы к серверу по вещам, общие для блокирующего и реактивного режимов шлюза.
+ */
+public abstract class AbstractItemClient<R> {
+    static final String API_PREFIX = "/items";
+
+    private final ServerClient<R> server;
+
+    protected AbstractItemClient(ServerClient<R> server) {
+        this.server = server;
+    }
+
+    public R getAllUserItems(long ownerId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return server.get("", ownerId, parameters);
+    }
+
+    public R getItem(long userId, int itemId) {
+        return server.get("/" + itemId, userId);
+    }
+
+    public R getItemsBySearch(String text, Integer from, Integer size, boolean ranked) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "ranked", ranked
+        );
+        return server.get("/search?text={text}&from={from}&size={size}&ranked={ranked}", null, parameters);
+    }
+
+    public R getItemAvailability(int itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return server.get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public R addItem(long ownerId, ItemDto itemDto) {
+        return server.post("", ownerId, itemDto);
+    }
+
+    public R editItem(long ownerId, int itemId, ItemDto itemDto) {
+        return server.patch("/" + itemId, ownerId, itemDto);
+    }
+
+    public R addComment(long authorId, int itemId, CommentDto commentDto) {
+        return server.post("/" + itemId + "/comment", authorId, commentDto);
+    }
+}
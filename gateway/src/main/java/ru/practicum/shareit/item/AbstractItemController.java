@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.InvalidPeriodException;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.marker.OnCreate;
+import ru.practicum.shareit.marker.OnPatch;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.Constants.USER_ID;
+
+/**
+ * Проверка запросов по вещам и передача их серверу, общие для блокирующего и реактивного режимов шлюза.
+ */
+@Slf4j
+@Validated
+public abstract class AbstractItemController<R> {
+    private final AbstractItemClient<R> itemClient;
+
+    protected AbstractItemController(AbstractItemClient<R> itemClient) {
+        this.itemClient = itemClient;
+    }
+
+    @GetMapping
+    public R getAllUserItems(@RequestHeader(USER_ID) @Positive long ownerId,
+                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                             @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Запрос на получение всех вещей пользователя, ownerId={}", ownerId);
+        return itemClient.getAllUserItems(ownerId, from, size);
+    }
+
+    @GetMapping("/{itemId}")
+    public R getItem(@RequestHeader(USER_ID) @Positive long userId,
+                     @PathVariable @Positive int itemId) {
+        log.info("Запрос на получение вещи, itemId={}, userId={}", itemId, userId);
+        return itemClient.getItem(userId, itemId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public R getItemAvailability(
+            @PathVariable @Positive int itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidPeriodException("Начало периода должно быть раньше его окончания");
+        }
+        log.info("Запрос на получение свободных периодов вещи, itemId={}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/search")
+    public R getItemsBySearch(@RequestParam String text,
+                              @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                              @RequestParam(defaultValue = "10") @Positive int size,
+                              @RequestParam(defaultValue = "false") boolean ranked) {
+        log.info("Запрос на получение списка вещей по поисковой строке, text={}, ranked={}", text, ranked);
+        return itemClient.getItemsBySearch(text, from, size, ranked);
+    }
+
+    @PostMapping
+    @Validated(OnCreate.class)
+    public R addItem(@RequestHeader(USER_ID) @Positive long ownerId,
+                     @RequestBody @Valid ItemDto itemDto) {
+        log.info("Запрос на добавление новой вещи, ownerId={}, item={}", ownerId, itemDto);
+        return itemClient.addItem(ownerId, itemDto);
+    }
+
+    @PatchMapping("/{itemId}")
+    @Validated(OnPatch.class)
+    public R editItem(@RequestHeader(USER_ID) @Positive long ownerId,
+                      @PathVariable @Positive int itemId,
+                      @RequestBody @Valid ItemDto itemDto) {
+        log.info("Запрос на редактирование вещи, ownerId={}, itemId={}", ownerId, itemId);
+        return itemClient.editItem(ownerId, itemId, itemDto);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public R addComment(@RequestHeader(USER_ID) @Positive long authorId,
+                        @PathVariable @Positive int itemId,
+                        @RequestBody @Valid CommentDto commentDto) {
+        log.info("Запрос на добавление комментария к вещи, authorId={}, itemId={}, comment={}",
+                authorId, itemId, commentDto);
+        return itemClient.addComment(authorId, itemId, commentDto);
+    }
+}
@@ -3,59 +3,29 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.BaseClient;
-import ru.practicum.shareit.item.comment.dto.CommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
-
-import java.util.Map;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
 
 @Service
-public class ItemClient extends BaseClient {
-    private static final String API_PREFIX = "/items";
+@Profile("!reactive")
+public class ItemClient extends AbstractItemClient<ResponseEntity<Object>> {
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer,
+                      ResponseCache responseCache) {
+        super(new BaseClient(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
-
-    public ResponseEntity<Object> getAllUserItems(long ownerId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("", ownerId, parameters);
-    }
-
-    public ResponseEntity<Object> getItem(long userId, int itemId) {
-        return get("/" + itemId, userId);
-    }
-
-    public ResponseEntity<Object> getItemsBySearch(String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}", null, parameters);
-    }
-
-    public ResponseEntity<Object> addItem(long ownerId, ItemDto itemDto) {
-        return post("", ownerId, itemDto);
-    }
-
-    public ResponseEntity<Object> editItem(long ownerId, int itemId, ItemDto itemDto) {
-        return patch("/" + itemId, ownerId, itemDto);
-    }
-
-    public ResponseEntity<Object> addComment(long authorId, int itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", authorId, commentDto);
+                .requestFactory(() -> requestFactory)
+                .build(),
+                coalescer,
+                responseCache
+        ));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.ReactiveBaseClient;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemClient extends AbstractItemClient<Mono<ResponseEntity<Object>>> {
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              RequestCoalescer coalescer, ResponseCache responseCache) {
+        super(new ReactiveBaseClient(new DefaultUriBuilderFactory(serverUrl + API_PREFIX), builder,
+                coalescer, responseCache));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/items")
+public class ReactiveItemController extends AbstractItemController<Mono<ResponseEntity<Object>>> {
+
+    public ReactiveItemController(ReactiveItemClient itemClient) {
+        super(itemClient);
+    }
+}
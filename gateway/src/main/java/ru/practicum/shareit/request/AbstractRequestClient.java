@@ -0,0 +1,47 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.ServerClient;
+import ru.practicum.shareit.request.dto.RequestDto;
+
+import java.util.Map;
+
+/**
+ * Запросы к серверу по запросам вещей, общие для блокирующего и реактивного режимов шлюза.
+ */
+public abstract class AbstractRequestClient<R> {
+    static final String API_PREFIX = "/requests";
+
+    private final ServerClient<R> server;
+
+    protected AbstractRequestClient(ServerClient<R> server) {
+        this.server = server;
+    }
+
+    public R addRequest(long userId, RequestDto requestDto) {
+        return server.post("", userId, requestDto);
+    }
+
+    public R getUserRequests(long userId) {
+        return server.get("", userId);
+    }
+
+    public R getOtherRequests(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return server.get("/all?from={from}&size={size}", userId, parameters);
+    }
+
+    public R getOtherRequestsAfter(long userId, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return server.get("/all?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public R getRequest(long userId, int requestId) {
+        return server.get("/" + requestId, userId);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.request.dto.RequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.Constants.USER_ID;
+
+/**
+ * Проверка запросов по запросам вещей и передача их серверу, общие для блокирующего и реактивного режимов шлюза.
+ */
+@Slf4j
+@Validated
+public abstract class AbstractRequestController<R> {
+    private final AbstractRequestClient<R> requestClient;
+
+    protected AbstractRequestController(AbstractRequestClient<R> requestClient) {
+        this.requestClient = requestClient;
+    }
+
+    @PostMapping
+    public R addRequest(@RequestHeader(USER_ID) @Positive long userId,
+                        @RequestBody @Valid RequestDto requestDto) {
+        log.info("Запрос на создание запроса {}, userId={}", requestDto, userId);
+        return requestClient.addRequest(userId, requestDto);
+    }
+
+    @GetMapping
+    public R getUserRequest(@RequestHeader(USER_ID) @Positive long userId) {
+        log.info("Запрос на получение запросов, userId={}", userId);
+        return requestClient.getUserRequests(userId);
+    }
+
+    @GetMapping("/all")
+    public R getOtherRequests(
+            @RequestHeader(USER_ID) @Positive long userId,
+            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(name = "size", defaultValue = "10") @Positive int size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            log.info("Запрос на получение запросов, userId={}, cursor={}, size={}", userId, cursor, size);
+            return requestClient.getOtherRequestsAfter(userId, cursor, size);
+        }
+        log.info("Запрос на получение запросов, userId={}, from={}, size={}", userId, from, size);
+        return requestClient.getOtherRequests(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public R getRequest(@RequestHeader(USER_ID) @Positive long userId,
+                        @PathVariable @Positive int requestId) {
+        log.info("Запрос на получение запроса {}, userId={}", requestId, userId);
+        return requestClient.getRequest(userId, requestId);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/requests")
+public class ReactiveRequestController extends AbstractRequestController<Mono<ResponseEntity<Object>>> {
+
+    public ReactiveRequestController(ReactiveRequestClient requestClient) {
+        super(requestClient);
+    }
+}
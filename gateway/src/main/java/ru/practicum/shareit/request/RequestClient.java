@@ -3,45 +3,29 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.BaseClient;
-import ru.practicum.shareit.request.dto.RequestDto;
-
-import java.util.Map;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
 
 @Service
-public class RequestClient extends BaseClient {
-    private static final String API_PREFIX = "/requests";
+@Profile("!reactive")
+public class RequestClient extends AbstractRequestClient<ResponseEntity<Object>> {
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer,
+                         ResponseCache responseCache) {
+        super(new BaseClient(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
-    }
-
-    public ResponseEntity<Object> addRequest(long userId, RequestDto requestDto) {
-        return post("", userId, requestDto);
-    }
-
-    public ResponseEntity<Object> getUserRequests(long userId) {
-        return get("", userId);
-    }
-
-    public ResponseEntity<Object> getOtherRequests(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
-    }
-
-    public ResponseEntity<Object> getRequest(long userId, int requestId) {
-        return get("/" + requestId, userId);
+                .requestFactory(() -> requestFactory)
+                .build(),
+                coalescer,
+                responseCache
+        ));
     }
-}
\ No newline at end of file
+}
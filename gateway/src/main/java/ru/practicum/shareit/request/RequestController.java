@@ -1,60 +1,16 @@
 package ru.practicum.shareit.request;
 
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import ru.practicum.shareit.request.dto.RequestDto;
-
-import javax.validation.Valid;
-import javax.validation.constraints.Positive;
-import javax.validation.constraints.PositiveOrZero;
-
-import static ru.practicum.shareit.Constants.USER_ID;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/requests")
-@RequiredArgsConstructor
-@Slf4j
-@Validated
-public class RequestController {
-    private final RequestClient requestClient;
-
-    @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestHeader(USER_ID) @Positive long userId,
-                                             @RequestBody @Valid RequestDto requestDto) {
-        log.info("Запрос на создание запроса {}, userId={}", requestDto, userId);
-        return requestClient.addRequest(userId, requestDto);
-    }
-
-    @GetMapping
-    public ResponseEntity<Object> getUserRequest(@RequestHeader(USER_ID) @Positive long userId) {
-        log.info("Запрос на получение запросов, userId={}", userId);
-        return requestClient.getUserRequests(userId);
-    }
-
-    @GetMapping("/all")
-    public ResponseEntity<Object> getOtherRequests(
-            @RequestHeader(USER_ID) @Positive long userId,
-            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
-        log.info("Запрос на получение запросов, userId={}, from={}, size={}", userId, from, size);
-        return requestClient.getOtherRequests(userId, from, size);
-    }
+public class RequestController extends AbstractRequestController<ResponseEntity<Object>> {
 
-    @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@RequestHeader(USER_ID) @Positive long userId,
-                                             @PathVariable @Positive int requestId) {
-        log.info("Запрос на получение запроса {}, userId={}", requestId, userId);
-        return requestClient.getRequest(userId, requestId);
+    public RequestController(RequestClient requestClient) {
+        super(requestClient);
     }
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user;
+
+import ru.practicum.shareit.ServerClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Map;
+
+/**
+ * Запросы к серверу по пользователям, общие для блокирующего и реактивного режимов шлюза.
+ */
+public abstract class AbstractUserClient<R> {
+    static final String API_PREFIX = "/users";
+
+    private final ServerClient<R> server;
+
+    protected AbstractUserClient(ServerClient<R> server) {
+        this.server = server;
+    }
+
+    public R addUser(UserDto userDto) {
+        return server.post("", userDto);
+    }
+
+    public R updateUser(long userId, UserDto userDto) {
+        return server.patch("/" + userId, userDto);
+    }
+
+    public R getUser(long userId) {
+        return server.get("/" + userId);
+    }
+
+    public R deleteUser(long userId) {
+        return server.delete("/" + userId);
+    }
+
+    public R getAllUsers(int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return server.get("?from={from}&size={size}", null, parameters);
+    }
+
+    public R getUsersAfter(String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return server.get("?cursor={cursor}&size={size}", null, parameters);
+    }
+}
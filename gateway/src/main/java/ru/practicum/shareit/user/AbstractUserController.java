@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.marker.OnCreate;
+import ru.practicum.shareit.marker.OnPatch;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Проверка запросов по пользователям и передача их серверу, общие для блокирующего и реактивного режимов шлюза.
+ */
+@Slf4j
+@Validated
+public abstract class AbstractUserController<R> {
+    private final AbstractUserClient<R> userClient;
+
+    protected AbstractUserController(AbstractUserClient<R> userClient) {
+        this.userClient = userClient;
+    }
+
+    @PostMapping
+    @Validated(OnCreate.class)
+    public R addUser(@RequestBody @Valid UserDto userDto) {
+        log.info("Запрос на создание пользователя {}", userDto);
+        return userClient.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    @Validated(OnPatch.class)
+    public R updateUser(@PathVariable @Positive long userId,
+                        @RequestBody @Valid UserDto userDto) {
+        log.info("Запрос на обновление пользователя userId={}", userId);
+        return userClient.updateUser(userId, userDto);
+    }
+
+    @GetMapping("/{userId}")
+    public R getUser(@PathVariable @Positive long userId) {
+        log.info("Запрос на получение пользователя userId={}", userId);
+        return userClient.getUser(userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public R deleteUser(@PathVariable @Positive long userId) {
+        log.info("Запрос на удаление пользователя userId={}", userId);
+        return userClient.deleteUser(userId);
+    }
+
+    @GetMapping()
+    public R getAllUsers(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                         @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                         @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            log.info("Запрос на получение пользователей, cursor={}, size={}", cursor, size);
+            return userClient.getUsersAfter(cursor, size);
+        }
+        log.info("Запрос на получение пользователей, from={}, size={}", from, size);
+        return userClient.getAllUsers(from, size);
+    }
+}
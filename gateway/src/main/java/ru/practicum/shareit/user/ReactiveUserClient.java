@@ -0,0 +1,49 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.ReactiveBaseClient;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserClient extends AbstractUserClient<Mono<ResponseEntity<Object>>> {
+    private final ReactiveBaseClient server;
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              RequestCoalescer coalescer, ResponseCache responseCache) {
+        this(new ReactiveBaseClient(new DefaultUriBuilderFactory(serverUrl + API_PREFIX), builder,
+                coalescer, responseCache));
+    }
+
+    private ReactiveUserClient(ReactiveBaseClient server) {
+        super(server);
+        this.server = server;
+    }
+
+    /**
+     * Все пользователи одним JSON-массивом: сервер пишет его по мере чтения из базы, шлюз передаёт
+     * клиенту по мере получения.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsersUnpaged() {
+        return server.stream("", MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Передаёт NDJSON-выгрузку пользователей с сервера клиенту буферами по мере получения.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamUsers() {
+        return server.stream("", MediaType.APPLICATION_NDJSON);
+    }
+}
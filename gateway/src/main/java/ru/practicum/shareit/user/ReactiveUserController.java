@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/users")
+public class ReactiveUserController extends AbstractUserController<Mono<ResponseEntity<Object>>> {
+    private final ReactiveUserClient userClient;
+
+    public ReactiveUserController(ReactiveUserClient userClient) {
+        super(userClient);
+        this.userClient = userClient;
+    }
+
+    /**
+     * Без параметров пагинации — все пользователи, как до её появления.
+     */
+    @GetMapping(params = {"!from", "!size", "!cursor"})
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsersUnpaged() {
+        log.info("Запрос на получение всех пользователей");
+        return userClient.getAllUsersUnpaged();
+    }
+
+    @GetMapping(params = {"!from", "!size", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamUsers() {
+        log.info("Запрос на выгрузку всех пользователей");
+        return userClient.streamUsers();
+    }
+}
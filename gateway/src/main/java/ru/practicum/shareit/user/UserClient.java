@@ -3,43 +3,52 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.BaseClient;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
 
 @Service
-public class UserClient extends BaseClient {
-    private static final String API_PREFIX = "/users";
+@Profile("!reactive")
+public class UserClient extends AbstractUserClient<ResponseEntity<Object>> {
+    private final BaseClient server;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer,
+                      ResponseCache responseCache) {
+        this(new BaseClient(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+                .requestFactory(() -> requestFactory)
+                .build(),
+                coalescer,
+                responseCache
+        ));
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
-        return post("", userDto);
+    private UserClient(BaseClient server) {
+        super(server);
+        this.server = server;
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    /**
+     * Все пользователи одним JSON-массивом: сервер пишет его по мере чтения из базы, шлюз передаёт
+     * клиенту по мере получения.
+     */
+    public ResponseEntity<StreamingResponseBody> getAllUsersUnpaged() {
+        return server.stream("", MediaType.APPLICATION_JSON);
     }
 
-    public ResponseEntity<Object> getUser(long userId) {
-        return get("/" + userId);
-    }
-
-    public ResponseEntity<Object> deleteUser(long userId) {
-        return delete("/" + userId);
-    }
-
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    /**
+     * Копирует NDJSON-выгрузку пользователей с сервера в ответ клиенту по мере получения, без буферизации.
+     */
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return server.stream("", MediaType.APPLICATION_NDJSON);
     }
 }
@@ -1,62 +1,38 @@
 package ru.practicum.shareit.user;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PatchMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
-import ru.practicum.shareit.marker.OnCreate;
-import ru.practicum.shareit.marker.OnPatch;
-import ru.practicum.shareit.user.dto.UserDto;
-
-import javax.validation.Valid;
-import javax.validation.constraints.Positive;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/users")
-@RequiredArgsConstructor
-@Validated
-public class UserController {
+public class UserController extends AbstractUserController<ResponseEntity<Object>> {
     private final UserClient userClient;
 
-    @PostMapping
-    @Validated(OnCreate.class)
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserDto userDto) {
-        log.info("Запрос на создание пользователя {}", userDto);
-        return userClient.addUser(userDto);
-    }
-
-    @PatchMapping("/{userId}")
-    @Validated(OnPatch.class)
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive long userId,
-                                             @RequestBody @Valid UserDto userDto) {
-        log.info("Запрос на обновление пользователя userId={}", userId);
-        return userClient.updateUser(userId, userDto);
+    public UserController(UserClient userClient) {
+        super(userClient);
+        this.userClient = userClient;
     }
 
-    @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable @Positive long userId) {
-        log.info("Запрос на получение пользователя userId={}", userId);
-        return userClient.getUser(userId);
-    }
-
-    @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive long userId) {
-        log.info("Запрос на удаление пользователя userId={}", userId);
-        return userClient.deleteUser(userId);
+    /**
+     * Без параметров пагинации — все пользователи, как до её появления.
+     */
+    @GetMapping(params = {"!from", "!size", "!cursor"})
+    public ResponseEntity<StreamingResponseBody> getAllUsersUnpaged() {
+        log.info("Запрос на получение всех пользователей");
+        return userClient.getAllUsersUnpaged();
     }
 
-    @GetMapping()
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("Запрос на получение всех пользователей");
-        return userClient.getAllUsers();
+    @GetMapping(params = {"!from", "!size", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("Запрос на выгрузку всех пользователей");
+        return userClient.streamUsers();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static ru.practicum.shareit.Constants.USER_ID;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL))
+                .build();
+        server = MockRestServiceServer.bindTo(rest).build();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        client = new BaseClient(rest, new RequestCoalescer(new SimpleMeterRegistry(), false),
+                new ResponseCache(cacheProperties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void getWhenServerRespondsOkThenStatusBodyAndEndToEndHeadersPassedThrough() {
+        String json = "[{\"id\":1,\"name\":\"Дрель\"}]";
+        server.expect(requestTo(SERVER_URL + "/items?cursor=abc"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(USER_ID, "1"))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(serverHeaders("def"))
+                        .body(json));
+
+        ResponseEntity<Object> response = client.get("/items?cursor={cursor}", 1L, Map.of("cursor", "abc"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("def", response.getHeaders().getFirst(NEXT_CURSOR));
+        assertEquals("\"1\"", response.getHeaders().getETag());
+        for (String hopByHop : new String[]{HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE}) {
+            assertFalse(response.getHeaders().containsKey(hopByHop), hopByHop);
+        }
+        server.verify();
+    }
+
+    @Test
+    void getWhenServerRespondsClientErrorThenStatusAndBodyPassedThrough() {
+        String json = "{\"error\":\"Пользователь не найден\"}";
+        server.expect(requestTo(SERVER_URL + "/users/5"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(serverHeaders(null))
+                        .body(json));
+
+        ResponseEntity<Object> response = client.get("/users/5");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        server.verify();
+    }
+
+    @Test
+    void postWhenServerRespondsServerErrorThenStatusAndBodyPassedThrough() {
+        String json = "{\"error\":\"Внутренняя ошибка\"}";
+        server.expect(requestTo(SERVER_URL + "/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(USER_ID, "2"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(serverHeaders(null))
+                        .body(json));
+
+        ResponseEntity<Object> response = client.post("/bookings", 2L, Map.of("itemId", 1));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void deleteWhenServerRespondsWithoutBodyThenEmptyResponse() {
+        server.expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.OK));
+
+        ResponseEntity<Object> response = client.delete("/users/1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void streamWhenServerRespondsOkThenBodyCopiedWithServerHeaders() throws IOException {
+        String ndjson = "{\"id\":1}\n{\"id\":2}\n";
+        server.expect(requestTo(SERVER_URL + "/users"))
+                .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .headers(serverHeaders(null))
+                        .body(ndjson));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/users", MediaType.APPLICATION_NDJSON);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals(ndjson, write(response));
+        server.verify();
+    }
+
+    @Test
+    void streamWhenServerRespondsNotFoundThenStatusAndBodyPassedThrough() throws IOException {
+        assertStreamErrorPassedThrough(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void streamWhenServerRespondsServerErrorThenStatusAndBodyPassedThrough() throws IOException {
+        assertStreamErrorPassedThrough(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private void assertStreamErrorPassedThrough(HttpStatus status) throws IOException {
+        String json = "{\"error\":\"Ошибка\"}";
+        server.expect(requestTo(SERVER_URL + "/users"))
+                .andRespond(withStatus(status)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/users", MediaType.APPLICATION_NDJSON);
+
+        server.verify();
+        assertEquals(status, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(json, write(response));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static HttpHeaders serverHeaders(String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.set(HttpHeaders.DATE, "Sun, 18 Oct 2026 12:00:00 GMT");
+        headers.setETag("\"1\"");
+        if (nextCursor != null) {
+            headers.set(NEXT_CURSOR, nextCursor);
+        }
+        return headers;
+    }
+}
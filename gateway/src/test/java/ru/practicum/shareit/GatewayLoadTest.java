@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузка на шлюз из множества потоков при сервере с фиксированной задержкой ответа.
+ * Задержки сверх задержки сервера означают ожидание соединения в пуле.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.org.springframework.web.client.RestTemplate=INFO",
+                "gateway.coalescing.enabled=false", "gateway.cache.enabled=false"})
+@Slf4j
+class GatewayLoadTest {
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 30;
+    private static final long SERVER_DELAY_MILLIS = 20;
+    /**
+     * Лимит соединений к одному адресу в HttpClient по умолчанию.
+     */
+    private static final int DEFAULT_MAX_PER_ROUTE = 5;
+
+    private static final ServerStub server = ServerStub.start(SERVER_DELAY_MILLIS);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void getUserWhenConcurrentThenAllOkAndPoolGrowsPastDefaultRouteLimit() throws Exception {
+        List<Long> latencies = runLoad();
+
+        assertEquals(THREADS * REQUESTS_PER_THREAD, latencies.size());
+        assertEquals(200, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server").gauge().value());
+        assertTrue(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").tag("state", "available").gauge().value() > DEFAULT_MAX_PER_ROUTE);
+    }
+
+    /**
+     * Зависит от производительности машины, поэтому запускается только с профилем benchmark:
+     * {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void getUserWhenConcurrentThenLowP99() throws Exception {
+        List<Long> latencies = runLoad();
+
+        double p50 = percentileMillis(latencies, 0.50);
+        double p99 = percentileMillis(latencies, 0.99);
+        log.info("Запросов: {}, потоков: {}, p50: {} мс, p99: {} мс", latencies.size(), THREADS, p50, p99);
+        assertTrue(p99 < 2000, "p99 " + p99 + " мс");
+    }
+
+    /**
+     * @return отсортированные задержки всех запросов в наносекундах
+     */
+    private List<Long> runLoad() throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+            for (int i = 0; i < THREADS; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                        long started = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        latencies.add(System.nanoTime() - started);
+                        assertEquals(200, response.statusCode());
+                        assertEquals(ServerStub.USER, new String(response.body(), StandardCharsets.UTF_8));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted;
+        } finally {
+            executor.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
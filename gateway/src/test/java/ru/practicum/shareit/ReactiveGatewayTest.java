@@ -0,0 +1,153 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Реактивный режим шлюза: те же проверки входных данных и передача запросов серверу без блокировки потоков.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO",
+                "gateway.coalescing.enabled=false", "gateway.cache.enabled=false"})
+@ActiveProfiles("reactive")
+@Slf4j
+class ReactiveGatewayTest {
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final long SERVER_DELAY_MILLIS = 200;
+
+    private static final ServerStub server = ServerStub.start(SERVER_DELAY_MILLIS);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveWebServerFactory webServerFactory;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void webServerWhenReactiveProfileThenNetty() {
+        assertInstanceOf(NettyReactiveWebServerFactory.class, webServerFactory);
+    }
+
+    @Test
+    void getUserWhenValidThenForwarded() {
+        webTestClient.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json(ServerStub.USER);
+    }
+
+    @Test
+    void getItemsBySearchWhenResponseAboveDefaultCodecLimitThenForwarded() {
+        webTestClient.get().uri("/items/search?text=item")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(ServerStub.LARGE_ITEM_COUNT);
+    }
+
+    @Test
+    void getAllUsersWhenNoPaginationThenServerListForwarded() {
+        webTestClient.get().uri("/users")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(ServerStub.USER);
+    }
+
+    @Test
+    void streamUsersWhenNdjsonThenForwarded() {
+        webTestClient.get().uri("/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(ServerStub.USER);
+    }
+
+    @Test
+    void getUserWhenNegativeIdThenBadRequest() {
+        webTestClient.get().uri("/users/-1")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void addUserWhenInvalidEmailThenBadRequest() {
+        webTestClient.post().uri("/users")
+                .bodyValue(new UserDto("user", "not-an-email"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getBookingsWhenUnknownStateThenBadRequest() {
+        webTestClient.get().uri("/bookings?state=unknown")
+                .header(Constants.USER_ID, "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: unknown");
+    }
+
+    @Test
+    void getUserWhenThousandConcurrentThenServedWithoutBlocking() {
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(CONCURRENT_REQUESTS)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        long started = System.nanoTime();
+        List<HttpStatus> statuses = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> client.get().uri("/users/1").exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(response.statusCode())), CONCURRENT_REQUESTS)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        connections.dispose();
+        log.info("Запросов: {}, время: {} мс", CONCURRENT_REQUESTS, elapsedMillis);
+
+        assertEquals(CONCURRENT_REQUESTS, statuses.size());
+        assertTrue(statuses.stream().allMatch(HttpStatus.OK::equals));
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final int THREADS = 64;
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+    private static final URI USER = URI.create("http://localhost:9090/users/1");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, true);
+
+    @Test
+    void coalesceWhenConcurrentIdenticalThenOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> upstream = new CompletableFuture<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            requests.add(executor.submit(() -> {
+                start.await();
+                return coalescer.coalesce(ITEM, 1L, () -> {
+                    calls.incrementAndGet();
+                    return upstream;
+                });
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (Future<CompletableFuture<ResponseEntity<Object>>> request : requests) {
+            responses.add(request.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        ResponseEntity<Object> response = ResponseEntity.ok(new byte[]{1});
+        upstream.complete(response);
+
+        assertEquals(1, calls.get());
+        for (CompletableFuture<ResponseEntity<Object>> result : responses) {
+            assertSame(response, result.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, meterRegistry.get("gateway.coalescing.requests").tag("result", "leader").counter().count());
+        assertEquals(THREADS - 1, meterRegistry.get("gateway.coalescing.requests").tag("result", "follower").counter().count());
+        assertEquals((THREADS - 1) / (double) THREADS, meterRegistry.get("gateway.coalescing.ratio").gauge().value());
+        assertEquals(0, meterRegistry.get("gateway.coalescing.in-flight").gauge().value());
+    }
+
+    @Test
+    void coalesceWhenDifferentUserOrParametersThenSeparateCalls() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> upstream = new CompletableFuture<>();
+
+        coalescer.coalesce(ITEM, 1L, () -> count(calls, upstream));
+        coalescer.coalesce(ITEM, 2L, () -> count(calls, upstream));
+        coalescer.coalesce(URI.create("http://localhost:9090/items/search?text=drill"), null, () -> count(calls, upstream));
+        coalescer.coalesce(URI.create("http://localhost:9090/items/search?text=saw"), null, () -> count(calls, upstream));
+        coalescer.coalesce(URI.create("http://localhost:9090/items/search?text=saw"), null, () -> count(calls, upstream));
+
+        assertEquals(4, calls.get());
+        assertEquals(4, meterRegistry.get("gateway.coalescing.in-flight").gauge().value());
+    }
+
+    @Test
+    void coalesceWhenPreviousCompletedThenNewCall() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.coalesce(USER, null,
+                () -> count(calls, CompletableFuture.completedFuture(ResponseEntity.ok().build())));
+        coalescer.coalesce(USER, null,
+                () -> count(calls, CompletableFuture.completedFuture(ResponseEntity.ok().build())));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void coalesceWhenCallFailsThenErrorSharedAndNotRemembered() {
+        CompletableFuture<ResponseEntity<Object>> failed = coalescer.coalesce(USER, null, () -> {
+            throw new IllegalStateException("сервер недоступен");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(0, meterRegistry.get("gateway.coalescing.in-flight").gauge().value());
+    }
+
+    @Test
+    void coalesceWhenDisabledThenEveryCallExecuted() {
+        RequestCoalescer disabled = new RequestCoalescer(new SimpleMeterRegistry(), false);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ResponseEntity<Object>> upstream = new CompletableFuture<>();
+
+        disabled.coalesce(USER, null, () -> count(calls, upstream));
+        disabled.coalesce(USER, null, () -> count(calls, upstream));
+
+        assertEquals(2, calls.get());
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> count(AtomicInteger calls,
+                                                                   CompletableFuture<ResponseEntity<Object>> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+}
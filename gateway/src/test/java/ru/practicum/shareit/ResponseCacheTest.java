@@ -0,0 +1,172 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+    private static final URI SEARCH = URI.create("http://localhost:9090/items/search?text=drill");
+    private static final URI OTHER_REQUESTS = URI.create("http://localhost:9090/requests/all?from=0&size=10");
+    private static final URI USER = URI.create("http://localhost:9090/users/1");
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sentEtags = new ArrayList<>();
+    private ResponseCacheProperties properties;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        properties.setTtl(Map.of(
+                "/items", Duration.ofMinutes(1),
+                "/items/search", Duration.ZERO,
+                "/requests/all", Duration.ofMinutes(1),
+                "/users", Duration.ofMinutes(1)
+        ));
+        properties.setInvalidates(Map.of("/items", List.of("/requests")));
+        cache = new ResponseCache(properties, meterRegistry);
+    }
+
+    @Test
+    void getWhenFreshThenServedWithoutFetch() {
+        ResponseEntity<Object> first = cache.get(USER, null, etag -> respond(etag, ok("user", null))).join();
+        ResponseEntity<Object> second = cache.get(USER, null, etag -> respond(etag, ok("other", null))).join();
+
+        assertSame(first, second);
+        assertEquals(1, sentEtags.size());
+        assertEquals(1, lookups("fresh"));
+        assertEquals(1, lookups("miss"));
+    }
+
+    @Test
+    void getWhenOtherUserThenSeparateEntry() {
+        cache.get(OTHER_REQUESTS, 1L, etag -> respond(etag, ok("first", null))).join();
+        ResponseEntity<Object> response = cache.get(OTHER_REQUESTS, 2L, etag -> respond(etag, ok("second", null))).join();
+
+        assertEquals("second", body(response));
+        assertEquals(2, sentEtags.size());
+    }
+
+    @Test
+    void getWhenRouteNotCachedOrZeroTtlThenAlwaysFetched() {
+        cache.get(SEARCH, null, etag -> respond(etag, ok("items", null))).join();
+        cache.get(SEARCH, null, etag -> respond(etag, ok("items", null))).join();
+        cache.get(URI.create("http://localhost:9090/bookings/1"), 1L, etag -> respond(etag, ok("booking", null))).join();
+        cache.get(URI.create("http://localhost:9090/bookings/1"), 1L, etag -> respond(etag, ok("booking", null))).join();
+
+        assertEquals(4, sentEtags.size());
+    }
+
+    @Test
+    void getWhenNotOkThenNotCached() {
+        cache.get(USER, null, etag -> respond(etag, ResponseEntity.status(HttpStatus.NOT_FOUND).build())).join();
+        cache.get(USER, null, etag -> respond(etag, ResponseEntity.status(HttpStatus.NOT_FOUND).build())).join();
+
+        assertEquals(2, sentEtags.size());
+    }
+
+    @Test
+    void getWhenStaleAndNotModifiedThenCachedBodyReturned() throws InterruptedException {
+        properties.setTtl(Map.of("/users", Duration.ofMillis(1)));
+        ResponseEntity<Object> first = cache.get(USER, null, etag -> respond(etag, ok("user", "\"v1\""))).join();
+        Thread.sleep(10);
+
+        ResponseEntity<Object> second = cache.get(USER, null,
+                etag -> respond(etag, ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build())).join();
+
+        assertSame(first, second);
+        assertEquals("user", body(second));
+        assertEquals(List.of("-", "\"v1\""), sentEtags);
+        assertEquals(1, lookups("not-modified"));
+    }
+
+    @Test
+    void getWhenStaleAndModifiedThenReplaced() throws InterruptedException {
+        properties.setTtl(Map.of("/users", Duration.ofMillis(1)));
+        cache.get(USER, null, etag -> respond(etag, ok("user", "\"v1\""))).join();
+        Thread.sleep(10);
+
+        ResponseEntity<Object> response = cache.get(USER, null, etag -> respond(etag, ok("renamed", "\"v2\""))).join();
+
+        assertEquals("renamed", body(response));
+        assertEquals(List.of("-", "\"v1\""), sentEtags);
+        assertEquals(1, lookups("modified"));
+    }
+
+    @Test
+    void invalidateWhenItemChangedThenItemsAndRequestsDropped() {
+        cache.get(ITEM, 1L, etag -> respond(etag, ok("item", null))).join();
+        cache.get(OTHER_REQUESTS, 1L, etag -> respond(etag, ok("requests", null))).join();
+        cache.get(USER, null, etag -> respond(etag, ok("user", null))).join();
+
+        cache.invalidate(URI.create("http://localhost:9090/items/1"));
+        cache.get(ITEM, 1L, etag -> respond(etag, ok("item", null))).join();
+        cache.get(OTHER_REQUESTS, 1L, etag -> respond(etag, ok("requests", null))).join();
+        cache.get(USER, null, etag -> respond(etag, ok("user", null))).join();
+
+        assertEquals(5, sentEtags.size());
+        assertEquals(1, lookups("fresh"));
+    }
+
+    @Test
+    void getWhenInvalidatedDuringFetchThenNotStored() {
+        CompletableFuture<ResponseEntity<Object>> upstream = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> response = cache.get(USER, null, etag -> respond(etag, upstream));
+
+        cache.invalidate(URI.create("http://localhost:9090/users/1"));
+        upstream.complete(ok("before update", null));
+        ResponseEntity<Object> next = cache.get(USER, null, etag -> respond(etag, ok("after update", null))).join();
+
+        assertEquals("before update", body(response.join()));
+        assertEquals("after update", body(next));
+    }
+
+    @Test
+    void getWhenDisabledThenAlwaysFetched() {
+        properties.setEnabled(false);
+
+        cache.get(USER, null, etag -> respond(etag, ok("user", null))).join();
+        cache.get(USER, null, etag -> respond(etag, ok("user", null))).join();
+
+        assertEquals(2, sentEtags.size());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> respond(String etag, ResponseEntity<Object> response) {
+        return respond(etag, CompletableFuture.completedFuture(response));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> respond(String etag, CompletableFuture<ResponseEntity<Object>> response) {
+        sentEtags.add(etag != null ? etag : "-");
+        return response;
+    }
+
+    private static ResponseEntity<Object> ok(String body, String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("gateway.response.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Заглушка сервера: на любой запрос к /users отвечает одним и тем же пользователем с фиксированной задержкой,
+ * на запрос к /items — списком из {@link #LARGE_ITEM_COUNT} вещей без задержки.
+ */
+class ServerStub {
+    static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+    static final int LARGE_ITEM_COUNT = 5000;
+
+    private final HttpServer server;
+
+    private ServerStub(HttpServer server) {
+        this.server = server;
+    }
+
+    static ServerStub start(long delayMillis) {
+        byte[] user = USER.getBytes(StandardCharsets.UTF_8);
+        byte[] items = IntStream.rangeClosed(1, LARGE_ITEM_COUNT)
+                .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"item\",\"description\":\"" + "d".repeat(100)
+                        + "\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+            httpServer.setExecutor(Executors.newCachedThreadPool());
+            httpServer.createContext("/users", exchange -> {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                boolean ndjson = accept != null && accept.contains("application/x-ndjson");
+                exchange.getResponseHeaders().add("Content-Type", ndjson ? "application/x-ndjson" : "application/json");
+                exchange.sendResponseHeaders(200, user.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(user);
+                }
+            });
+            httpServer.createContext("/items", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, items.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(items);
+                }
+            });
+            httpServer.start();
+            return new ServerStub(httpServer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+}
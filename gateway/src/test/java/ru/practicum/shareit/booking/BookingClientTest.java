@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.RequestCoalescer;
+import ru.practicum.shareit.ResponseCache;
+import ru.practicum.shareit.ResponseCacheProperties;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.Constants.USER_ID;
+
+class BookingClientTest {
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private MockRestServiceServer server;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        bookingClient = new BookingClient("http://localhost:9090", new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(),
+                new RequestCoalescer(new SimpleMeterRegistry(), false),
+                new ResponseCache(cacheProperties, new SimpleMeterRegistry()));
+        server = customizer.getServer();
+    }
+
+    @Test
+    void getUserBookingsAfterWhenInvokedThenCursorForwardedAndNextCursorReturned() {
+        server.expect(requestTo("http://localhost:9090/bookings?state=CURRENT&cursor=abc&size=5"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(USER_ID, "1"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(nextCursor("def")));
+
+        ResponseEntity<Object> response = bookingClient.getUserBookingsAfter(1L, BookingState.CURRENT, "abc", 5);
+
+        assertEquals("def", response.getHeaders().getFirst(NEXT_CURSOR));
+        server.verify();
+    }
+
+    @Test
+    void getItemBookingsAfterWhenInvokedThenCursorForwardedToOwnerPath() {
+        server.expect(requestTo("http://localhost:9090/bookings/owner?state=ALL&cursor=abc&size=10"))
+                .andExpect(header(USER_ID, "2"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = bookingClient.getItemBookingsAfter(2L, BookingState.ALL, "abc", 10);
+
+        assertEquals(200, response.getStatusCodeValue());
+        server.verify();
+    }
+
+    private static HttpHeaders nextCursor(String cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NEXT_CURSOR, cursor);
+        return headers;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.USER_ID;
+
+@WebMvcTest(controllers = BookingController.class)
+class BookingControllerTest {
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @SneakyThrows
+    @Test
+    void getUserBookingsWhenCursorThenKeysetPageRequested() {
+        when(bookingClient.getUserBookingsAfter(1L, BookingState.WAITING, "abc", 5))
+                .thenReturn(ResponseEntity.ok().header(NEXT_CURSOR, "def").body("[]"));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1L)
+                        .param("state", "waiting")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "def"));
+
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemBookingsWhenCursorThenKeysetPageRequested() {
+        when(bookingClient.getItemBookingsAfter(1L, BookingState.ALL, "abc", 10))
+                .thenReturn(ResponseEntity.ok().body("[]"));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID, 1L)
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+
+        verify(bookingClient, never()).getItemBookings(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserBookingsWhenNoCursorThenOffsetPageRequested() {
+        when(bookingClient.getUserBookings(1L, BookingState.ALL, 20, 10))
+                .thenReturn(ResponseEntity.ok().body("[]"));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1L)
+                        .param("from", "20"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, never()).getUserBookingsAfter(anyLong(), any(), any(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserBookingsWhenNonPositiveSizeThenBadRequest() {
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1L)
+                        .param("cursor", "abc")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getUserBookingsAfter(anyLong(), any(), any(), anyInt());
+    }
+}
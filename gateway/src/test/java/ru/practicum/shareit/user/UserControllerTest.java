@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class)
+class UserControllerTest {
+    private static final String USERS = "[{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}]";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @SneakyThrows
+    @Test
+    void getAllUsersWhenNoPaginationThenAllUsersStreamed() {
+        when(userClient.getAllUsersUnpaged()).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(USERS.getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json(USERS));
+        verify(userClient, never()).getAllUsers(anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsersWhenSizeThenPageRequested() {
+        when(userClient.getAllUsers(0, 5)).thenReturn(ResponseEntity.ok().body(USERS));
+
+        mvc.perform(get("/users")
+                        .param("size", "5"))
+                .andExpect(status().isOk());
+
+        verify(userClient, never()).getAllUsersUnpaged();
+    }
+
+    @SneakyThrows
+    @Test
+    void streamUsersWhenServerRespondsErrorThenServerStatus() {
+        when(userClient.streamUsers()).thenReturn(ResponseEntity.status(503)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write("{\"error\":\"Сервер недоступен\"}".getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
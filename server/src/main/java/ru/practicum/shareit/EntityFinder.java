@@ -1,6 +1,9 @@
 package ru.practicum.shareit;
 
-import lombok.experimental.UtilityClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.EntityNotFoundException;
@@ -9,41 +12,130 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
-@UtilityClass
+/**
+ * Поиск сущностей с исключением, если сущность не найдена. Подтверждённое существование
+ * запоминается до конца HTTP-запроса, а там, где нужен только внешний ключ, возвращается ссылка
+ * без загрузки сущности.
+ */
+@Component
+@RequiredArgsConstructor
 public class EntityFinder {
-    public static User findUserOrThrowException(UserRepository userRepo, Long userId) {
-        Optional<User> userOpt = userRepo.findById(userId);
-        if (userOpt.isEmpty()) {
-            throw new EntityNotFoundException("Пользователь не найден");
+    private static final String KNOWN_ENTITIES = EntityFinder.class.getName() + ".KNOWN_ENTITIES";
+    private static final String USER_NOT_FOUND = "Пользователь не найден";
+    private static final String ITEM_NOT_FOUND = "Вещь не найдена";
+
+    private final UserRepository userRepo;
+    private final ItemRepository itemRepo;
+    private final BookingRepository bookingRepo;
+    private final RequestRepository requestRepo;
+    private final KnownUserFilter knownUsers;
+
+    public User findUserOrThrowException(Long userId) {
+        if (!knownUsers.mightExist(userId)) {
+            throw new EntityNotFoundException(USER_NOT_FOUND);
         }
-        return userOpt.get();
+        Optional<User> user = userRepo.findById(userId);
+        if (user.isEmpty()) {
+            knownUsers.recordFalsePositive();
+            throw new EntityNotFoundException(USER_NOT_FOUND);
+        }
+        remember(User.class, userId);
+        return user.get();
+    }
+
+    public void checkUserExistsOrThrowException(Long userId) {
+        checkExists(User.class, userId, this::userExists, USER_NOT_FOUND);
+    }
+
+    /**
+     * Ссылка на существующего пользователя для внешнего ключа, поля пользователя не загружаются.
+     */
+    public User getUserReferenceOrThrowException(Long userId) {
+        checkUserExistsOrThrowException(userId);
+        return userRepo.getReferenceById(userId);
+    }
+
+    public void forgetUser(Long userId) {
+        knownEntities().remove(key(User.class, userId));
+    }
+
+    public Item findItemOrThrowException(Integer itemId) {
+        return orThrow(itemRepo.findById(itemId), ITEM_NOT_FOUND);
+    }
+
+    public Item findItemForUpdateOrThrowException(Integer itemId) {
+        return orThrow(itemRepo.findByIdForUpdate(itemId), ITEM_NOT_FOUND);
+    }
+
+    public void checkItemExistsOrThrowException(Integer itemId) {
+        checkExists(Item.class, itemId, itemRepo::existsById, ITEM_NOT_FOUND);
+    }
+
+    public Booking findBookingOrThrowException(Integer bookingId) {
+        return orThrow(bookingRepo.findWithItemAndBookerById(bookingId), "Бронирование не найдено");
     }
 
-    public static Item findItemOrThrowException(ItemRepository itemRepo, Integer itemId) {
-        Optional<Item> itemOpt = itemRepo.findById(itemId);
-        if (itemOpt.isEmpty()) {
-            throw new EntityNotFoundException("Вещь не найдена");
+    public Request findRequestOrThrowException(Integer requestId) {
+        return orThrow(requestRepo.findById(requestId), "Запрос на вещь не найден");
+    }
+
+    private boolean userExists(Long userId) {
+        if (!knownUsers.mightExist(userId)) {
+            return false;
+        }
+        boolean exists = userRepo.existsById(userId);
+        if (!exists) {
+            knownUsers.recordFalsePositive();
         }
-        return itemOpt.get();
+        return exists;
+    }
+
+    private static <T> T orThrow(Optional<T> entityOpt, String message) {
+        return entityOpt.orElseThrow(() -> new EntityNotFoundException(message));
     }
 
-    public static Booking findBookingOrThrowException(BookingRepository bookingRepo, Integer bookingId) {
-        Optional<Booking> bookingOpt = bookingRepo.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
-            throw new EntityNotFoundException("Бронирование не найдено");
+    private <ID> void checkExists(Class<?> type, ID id, Predicate<ID> exists, String message) {
+        Set<String> knownEntities = knownEntities();
+        if (knownEntities.contains(key(type, id))) {
+            return;
+        }
+        if (!exists.test(id)) {
+            throw new EntityNotFoundException(message);
         }
-        return bookingOpt.get();
+        knownEntities.add(key(type, id));
+    }
+
+    private void remember(Class<?> type, Object id) {
+        knownEntities().add(key(type, id));
     }
 
-    public static Request findRequestOrThrowException(RequestRepository requestRepo, Integer requestId) {
-        Optional<Request> requestOpt = requestRepo.findById(requestId);
-        if (requestOpt.isEmpty()) {
-            throw new EntityNotFoundException("Запрос на вещь не найден");
+    private static String key(Class<?> type, Object id) {
+        return type.getSimpleName() + "#" + id;
+    }
+
+    /**
+     * Сущности, существование которых уже подтверждено в текущем HTTP-запросе.
+     * Вне запроса память не сохраняется между вызовами.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> knownEntities() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new HashSet<>();
+        }
+        Set<String> knownEntities = (Set<String>) attributes.getAttribute(KNOWN_ENTITIES, RequestAttributes.SCOPE_REQUEST);
+        if (knownEntities == null) {
+            knownEntities = new HashSet<>();
+            attributes.setAttribute(KNOWN_ENTITIES, knownEntities, RequestAttributes.SCOPE_REQUEST);
         }
-        return requestOpt.get();
+        return knownEntities;
     }
 }
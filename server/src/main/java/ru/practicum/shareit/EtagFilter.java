@@ -0,0 +1,39 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * ETag по телу успешных GET-ответов и 304 на совпавший If-None-Match. Шлюз по нему перепроверяет
+ * устаревшие записи своего кэша без повторной передачи тела. Фильтр буферизует ответ целиком, поэтому
+ * применяется только к путям, которые кэширует шлюз (gateway.cache.ttl), и не применяется к NDJSON-выгрузке.
+ */
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+    private final List<String> paths;
+
+    public EtagFilter(@Value("${etag.paths:/items/search,/requests/all,/users}") List<String> paths) {
+        this.paths = paths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            return true;
+        }
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return paths.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+}
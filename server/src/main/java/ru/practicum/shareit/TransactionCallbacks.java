@@ -0,0 +1,37 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Действия над внутрипроцессными индексами и кэшами, привязанные к исходу текущей транзакции.
+ * Вне транзакции действие после фиксации выполняется сразу, а действие после отката не выполняется.
+ */
+@UtilityClass
+public class TransactionCallbacks {
+    public static void afterCommit(Runnable action) {
+        onCompletion(true, action);
+    }
+
+    public static void afterRollback(Runnable action) {
+        onCompletion(false, action);
+    }
+
+    private static void onCompletion(boolean committed, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (committed) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == committed) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -2,15 +2,19 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
 import ru.practicum.shareit.booking.model.BookingServerDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
 import static ru.practicum.shareit.Constants.USER_ID;
 
 @RestController
@@ -28,6 +32,13 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingClientDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(
+            @RequestHeader(USER_ID) Long userId, @RequestBody List<BookingClientDto> bookingClientDtos) {
+        log.info("Принят запрос на пакетное добавление бронирований: " + bookingClientDtos.size());
+        return bookingService.addBookings(userId, bookingClientDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingServerDto approveBooking(
             @RequestHeader(USER_ID) Long ownerId,
@@ -37,6 +48,15 @@ public class BookingController {
         return bookingService.approveBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping("/approve-batch")
+    public List<BookingBatchResultDto> approveBookings(
+            @RequestHeader(USER_ID) Long ownerId,
+            @RequestBody List<Integer> bookingIds,
+            @RequestParam Boolean approved) {
+        log.info("Принят запрос на подтверждение или отклонение бронирований ID " + bookingIds);
+        return bookingService.approveBookings(ownerId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingServerDto getBooking(
             @RequestHeader(USER_ID) Long userId, @PathVariable Integer bookingId) {
@@ -63,4 +83,33 @@ public class BookingController {
         log.info("Принят запрос на получение списка бронирований для всех вещей пользователя ID " + userId);
         return bookingService.getItemBookings(userId, state, from, size);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingServerDto>> getUserBookingsAfter(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam (defaultValue = "ALL") State state,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Принят запрос на получение страницы бронирований пользователя ID " + userId + " по курсору");
+        return toResponse(bookingService.getUserBookingsAfter(userId, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingServerDto>> getItemBookingsAfter(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam (defaultValue = "ALL") State state,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Принят запрос на получение страницы бронирований для всех вещей пользователя ID " + userId +
+                " по курсору");
+        return toResponse(bookingService.getItemBookingsAfter(userId, state, cursor, size));
+    }
+
+    private static ResponseEntity<List<BookingServerDto>> toResponse(CursorPage<BookingServerDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
@@ -1,38 +1,64 @@
 package ru.practicum.shareit.booking.dao;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
 
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Integer bookingId);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id = ?1 and b.status = ru.practicum.shareit.enums.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatusIfWaiting(Integer bookingId, Long ownerId, Status status);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Integer> bookingIds);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id in ?1 and b.status = ru.practicum.shareit.enums.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatusIfWaiting(Collection<Integer> bookingIds, Long ownerId, Status status);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(value = "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status from (" +
+            "select bk.*, row_number() over (partition by bk.item_id order by bk.start_date desc, bk.id desc) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (:itemIds) and bk.status <> 'REJECTED' and bk.start_date < :now" +
+            ") b where b.rn = 1", nativeQuery = true)
+    List<Booking> findLastBookingsByItemIds(Collection<Integer> itemIds, LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(value = "select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, b.status from (" +
+            "select bk.*, row_number() over (partition by bk.item_id order by bk.start_date, bk.id) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (:itemIds) and bk.status <> 'REJECTED' and bk.start_date > :now" +
+            ") b where b.rn = 1", nativeQuery = true)
+    List<Booking> findNextBookingsByItemIds(Collection<Integer> itemIds, LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfter(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    List<Booking> findAllByItemIdAndStatusIn(Integer itemId, Collection<Status> statuses);
 
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2")
+    boolean existsOverlapping(Integer itemId, LocalDateTime start, LocalDateTime end, Collection<Status> statuses);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query("select b from Booking b " +
+            "where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2 " +
+            "order by b.start")
+    List<Booking> findAllInPeriod(Integer itemId, LocalDateTime from, LocalDateTime to, Collection<Status> statuses);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long ownerId, Status status, Pageable pageable);
-
-    List<Booking> findAllByItemId(Integer itemId);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = ?1 or b.item.owner.id = ?1")
+    List<Integer> findItemIdsByParticipantId(Long userId);
 
     List<Booking> findAllByItemIdAndBookerIdAndStatusAndEndBefore(Integer itemId, Long authorId, Status approved, LocalDateTime now);
 }
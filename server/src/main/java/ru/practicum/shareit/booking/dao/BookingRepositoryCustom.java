@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingRole;
+import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findAllByRole(BookingRole role, Long userId, State state, LocalDateTime now,
+                                Cursor after, int offset, int limit);
+}
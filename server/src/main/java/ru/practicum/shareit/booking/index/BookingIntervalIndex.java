@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.TransactionCallbacks.afterCommit;
+import static ru.practicum.shareit.TransactionCallbacks.afterRollback;
+
+/**
+ * Индекс периодов бронирования по вещам. Хранит бронирования в статусах WAITING и APPROVED
+ * и загружается из базы при первом обращении к вещи. Закончившиеся периоды периодически удаляются,
+ * поэтому периоды, начинающиеся в прошлом, проверяются запросом к базе.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepo;
+    private final Map<Integer, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public boolean hasConflict(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        if (start.isBefore(now)) {
+            return bookingRepo.existsOverlapping(itemId, start, end, ACTIVE_STATUSES);
+        }
+        ItemIntervals intervals = intervalsOf(itemId);
+        intervals.pruneEndedBefore(now);
+        return intervals.overlaps(start, end);
+    }
+
+    public void add(Booking booking) {
+        ItemIntervals intervals = intervalsOf(booking.getItem().getId());
+        Interval interval = Interval.of(booking);
+        intervals.add(interval);
+        afterRollback(() -> intervals.remove(interval));
+    }
+
+    public void remove(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        Interval interval = Interval.of(booking);
+        afterCommit(() -> {
+            ItemIntervals intervals = items.get(itemId);
+            if (intervals != null) {
+                intervals.remove(interval);
+            }
+        });
+    }
+
+    public void evict(Integer itemId) {
+        items.remove(itemId);
+    }
+
+    public void evictAll(Collection<Integer> itemIds) {
+        afterCommit(() -> itemIds.forEach(items::remove));
+    }
+
+    @Scheduled(fixedDelayString = "${booking.index.prune-interval:PT10M}")
+    public void pruneEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        items.entrySet().removeIf(entry -> entry.getValue().pruneEndedBefore(now));
+        log.debug("Из индекса удалены закончившиеся бронирования, вещей в индексе: " + items.size());
+    }
+
+    private ItemIntervals intervalsOf(Integer itemId) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals != null) {
+            return intervals;
+        }
+        ItemIntervals loaded = new ItemIntervals();
+        bookingRepo.findAllByItemIdAndStatusIn(itemId, ACTIVE_STATUSES)
+                .forEach(booking -> loaded.add(Interval.of(booking)));
+        log.debug("Загружено " + loaded.size() + " периодов бронирования вещи ID " + itemId);
+        ItemIntervals existing = items.putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+}
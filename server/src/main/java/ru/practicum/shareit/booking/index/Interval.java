@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+class Interval {
+    private final Integer bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    static Interval of(Booking booking) {
+        return new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+    }
+}
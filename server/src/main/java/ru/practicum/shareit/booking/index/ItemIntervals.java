@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Периоды активных бронирований одной вещи, упорядоченные по началу. Периоды могут пересекаться
+ * (например, двойные бронирования, созданные до появления ограничения в базе), поэтому поиск
+ * просматривает все периоды, начавшиеся раньше конца запрошенного, пока их начало ближе
+ * к запрошенному, чем самый длинный из сохранённых периодов. Длины хранятся со счётчиками, чтобы
+ * после удаления длинного периода граница просмотра снова сужалась.
+ */
+class ItemIntervals {
+    private static final Comparator<Interval> BY_START =
+            Comparator.comparing(Interval::getStart).thenComparing(Interval::getBookingId);
+
+    private final TreeSet<Interval> intervals = new TreeSet<>(BY_START);
+    private final TreeMap<Duration, Integer> lengths = new TreeMap<>();
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Duration maxLength = maxLength();
+        Iterator<Interval> candidates = intervals.headSet(new Interval(Integer.MIN_VALUE, end, end), false)
+                .descendingIterator();
+        while (candidates.hasNext()) {
+            Interval candidate = candidates.next();
+            if (candidate.getEnd().isAfter(start)) {
+                return true;
+            }
+            if (!candidate.getStart().plus(maxLength).isAfter(start)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    synchronized void add(Interval interval) {
+        if (intervals.add(interval)) {
+            lengths.merge(length(interval), 1, Integer::sum);
+        }
+    }
+
+    synchronized void remove(Interval interval) {
+        if (intervals.remove(interval)) {
+            forgetLength(interval);
+        }
+    }
+
+    /**
+     * Удаляет периоды, закончившиеся не позже указанного момента.
+     *
+     * @return true, если периодов не осталось
+     */
+    synchronized boolean pruneEndedBefore(LocalDateTime now) {
+        Iterator<Interval> iterator = intervals.iterator();
+        while (iterator.hasNext()) {
+            Interval interval = iterator.next();
+            if (!interval.getStart().isBefore(now)) {
+                break;
+            }
+            if (!interval.getEnd().isAfter(now)) {
+                iterator.remove();
+                forgetLength(interval);
+            }
+        }
+        return intervals.isEmpty();
+    }
+
+    synchronized int size() {
+        return intervals.size();
+    }
+
+    synchronized Duration maxLength() {
+        return lengths.isEmpty() ? Duration.ZERO : lengths.lastKey();
+    }
+
+    private void forgetLength(Interval interval) {
+        lengths.computeIfPresent(length(interval), (length, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static Duration length(Interval interval) {
+        return Duration.between(interval.getStart(), interval.getEnd());
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private Integer bookingId;
+    private Boolean success;
+    private BookingServerDto booking;
+    private String error;
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
 import ru.practicum.shareit.booking.model.BookingServerDto;
 import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -10,11 +12,19 @@ public interface BookingService {
 
     BookingServerDto addBooking(Long userId, BookingClientDto bookingClientDto);
 
+    List<BookingBatchResultDto> addBookings(Long userId, List<BookingClientDto> bookingClientDtos);
+
     BookingServerDto approveBooking(Long ownerId, Integer bookingId, Boolean approved);
 
+    List<BookingBatchResultDto> approveBookings(Long ownerId, List<Integer> bookingIds, Boolean approved);
+
     BookingServerDto getBooking(Long userId, Integer bookingId);
 
     List<BookingServerDto> getUserBookings(Long userId, State state, Integer from, Integer size);
 
     List<BookingServerDto> getItemBookings(Long userId, State state, Integer from, Integer size);
+
+    CursorPage<BookingServerDto> getUserBookingsAfter(Long userId, State state, String cursor, Integer size);
+
+    CursorPage<BookingServerDto> getItemBookingsAfter(Long userId, State state, String cursor, Integer size);
 }
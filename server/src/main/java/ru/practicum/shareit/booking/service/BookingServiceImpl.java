@@ -2,84 +2,187 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
 import ru.practicum.shareit.booking.model.BookingServerDto;
+import ru.practicum.shareit.enums.BookingRole;
 import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.UnauthorizedAccessException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static ru.practicum.shareit.EntityFinder.*;
-
 @Service
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final String NO_OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepo;
-    private final UserRepository userRepo;
     private final ItemRepository itemRepo;
+    private final BookingIntervalIndex bookingIndex;
+    private final ItemViewCache itemViewCache;
+    private final EntityFinder entityFinder;
 
     @Override
     public BookingServerDto addBooking(Long userId, BookingClientDto bookingClientDto) {
-        User user = findUserOrThrowException(userRepo, userId);
-        Item item = findItemOrThrowException(itemRepo, bookingClientDto.getItemId());
+        User user = entityFinder.findUserOrThrowException(userId);
+        Item item = entityFinder.findItemForUpdateOrThrowException(bookingClientDto.getItemId());
 
-        if (item.getOwner().getId().equals(userId)) {
-            throw new UnauthorizedAccessException("Владелец вещи не может забронировать собственную вещь");
+        checkCanBook(userId, item);
+        checkNoOverlap(item.getId(), bookingClientDto.getStart(), bookingClientDto.getEnd());
+        Booking booking;
+        try {
+            booking = bookingRepo.saveAndFlush(BookingMapper.toBooking(item, user, bookingClientDto));
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
         }
-        if (!item.getAvailable()) {
-            throw new ItemNotAvailableException("Вещь недоступна для бронирования");
-        }
-        Booking booking = bookingRepo.save(BookingMapper.toBooking(item, user, bookingClientDto));
+        bookingIndex.add(booking);
+        itemViewCache.evictOwnerBookings(List.of(item.getId()));
         log.info("Добавлено бронирование вещи ID " + bookingClientDto.getItemId() +
                 " от пользователя ID " + userId);
         return BookingMapper.toBookingServerDto(booking);
     }
 
     @Override
-    public BookingServerDto approveBooking(Long ownerId, Integer bookingId, Boolean approved) {
-        findUserOrThrowException(userRepo, ownerId);
-        Booking booking = findBookingOrThrowException(bookingRepo, bookingId);
+    public List<BookingBatchResultDto> addBookings(Long userId, List<BookingClientDto> bookingClientDtos) {
+        User user = entityFinder.findUserOrThrowException(userId);
+        Set<Integer> itemIds = bookingClientDtos.stream()
+                .map(BookingClientDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Integer, Item> items = itemRepo.findAllForUpdateByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
 
-        if (booking.getStatus() != Status.WAITING) {
-            throw new InvalidOperationException("Нельзя изменить статус бронирования повторно");
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < bookingClientDtos.size(); i++) {
+            BookingClientDto bookingClientDto = bookingClientDtos.get(i);
+            Item item = items.get(bookingClientDto.getItemId());
+            try {
+                checkCanBook(userId, item);
+                checkNoOverlap(item.getId(), bookingClientDto.getStart(), bookingClientDto.getEnd());
+                checkNoOverlap(accepted.values(), bookingClientDto);
+            } catch (IllegalArgumentException e) {
+                results.add(new BookingBatchResultDto(null, false, null, e.getMessage()));
+                continue;
+            }
+            accepted.put(i, BookingMapper.toBooking(item, user, bookingClientDto));
+            results.add(null);
         }
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new UnauthorizedAccessException("Бронирование может подтвердить или отклонить только владелец вещи");
+
+        try {
+            bookingRepo.saveAll(accepted.values());
+            bookingRepo.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e);
+        }
+        itemViewCache.evictOwnerBookings(accepted.values().stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        accepted.forEach((position, booking) -> {
+            bookingIndex.add(booking);
+            results.set(position,
+                    new BookingBatchResultDto(booking.getId(), true, BookingMapper.toBookingServerDto(booking), null));
+        });
+        log.info("Добавлено бронирований от пользователя ID " + userId + ": " +
+                accepted.size() + " из " + bookingClientDtos.size());
+        return results;
+    }
+
+    @Override
+    public BookingServerDto approveBooking(Long ownerId, Integer bookingId, Boolean approved) {
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+
+        // успешное обновление бронирования вещи владельца уже подтверждает, что владелец существует
+        if (bookingRepo.updateStatusIfWaiting(bookingId, ownerId, status) == 0) {
+            entityFinder.checkUserExistsOrThrowException(ownerId);
+            RuntimeException failure = approvalFailure(ownerId, bookingRepo.findById(bookingId).orElse(null));
+            throw failure != null ? failure : new InvalidOperationException("Нельзя изменить статус бронирования повторно");
         }
+        Booking booking = bookingRepo.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено"));
+        itemViewCache.evictOwnerBookings(List.of(booking.getItem().getId()));
         if (approved) {
-            booking.setStatus(Status.APPROVED);
             log.info("Бронирование подтверждено владельцем");
         } else {
-            booking.setStatus(Status.REJECTED);
+            bookingIndex.remove(booking);
             log.info("Бронирование отклонено владельцем");
         }
-        return BookingMapper.toBookingServerDto(bookingRepo.save(booking));
+        return BookingMapper.toBookingServerDto(booking);
+    }
+
+    @Override
+    public List<BookingBatchResultDto> approveBookings(Long ownerId, List<Integer> bookingIds, Boolean approved) {
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        Map<Integer, Booking> bookings = bookingRepo.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
+        Set<Integer> changedItemIds = new HashSet<>();
+        for (Integer bookingId : new LinkedHashSet<>(bookingIds)) {
+            Booking booking = bookings.get(bookingId);
+            RuntimeException failure = approvalFailure(ownerId, booking);
+            if (failure != null) {
+                results.add(new BookingBatchResultDto(bookingId, false, null, failure.getMessage()));
+                continue;
+            }
+            BookingServerDto bookingServerDto = BookingMapper.toBookingServerDto(booking);
+            bookingServerDto.setStatus(status);
+            results.add(new BookingBatchResultDto(bookingId, true, bookingServerDto, null));
+            accepted.add(bookingId);
+            changedItemIds.add(booking.getItem().getId());
+            if (!approved) {
+                bookingIndex.remove(booking);
+            }
+        }
+        if (accepted.isEmpty()) {
+            entityFinder.checkUserExistsOrThrowException(ownerId);
+        } else if (bookingRepo.updateStatusIfWaiting(accepted, ownerId, status) != accepted.size()) {
+            throw new InvalidOperationException("Статус части бронирований был изменён параллельно, повторите запрос");
+        }
+        itemViewCache.evictOwnerBookings(changedItemIds);
+        log.info("Владельцем ID " + ownerId + " " + (approved ? "подтверждено" : "отклонено") + " бронирований: " +
+                accepted.size() + " из " + results.size());
+        return results;
     }
 
     @Transactional(readOnly = true)
     @Override
     public BookingServerDto getBooking(Long userId, Integer bookingId) {
-        findUserOrThrowException(userRepo, userId);
-        Booking booking = findBookingOrThrowException(bookingRepo, bookingId);
+        entityFinder.checkUserExistsOrThrowException(userId);
+        Booking booking = entityFinder.findBookingOrThrowException(bookingId);
 
         if (!(userId.equals(booking.getBooker().getId()) ||
                 userId.equals(booking.getItem().getOwner().getId()))) {
@@ -94,68 +197,117 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     @Override
     public List<BookingServerDto> getUserBookings(Long bookerId, State state, Integer from, Integer size) {
-        findUserOrThrowException(userRepo, bookerId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-
-        List<Booking> bookings;
-        switch (state) {
-            case ALL:
-                bookings = bookingRepo.findAllByBookerId(bookerId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepo.findAllByBookerIdAndStartBeforeAndEndAfter(
-                        bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable
-                );
-                break;
-            case PAST:
-                bookings = bookingRepo.findAllByBookerIdAndEndBefore(
-                        bookerId, LocalDateTime.now(), pageable
-                );
-                break;
-            case FUTURE:
-                bookings = bookingRepo.findAllByBookerIdAndStartAfter(
-                        bookerId, LocalDateTime.now(), pageable
-                );
-                break;
-            default:
-                bookings = bookingRepo.findAllByBookerIdAndStatus(bookerId, Status.valueOf(state.toString()), pageable);
-                break;
-        }
+        entityFinder.checkUserExistsOrThrowException(bookerId);
+        List<Booking> bookings = bookingRepo.findAllByRole(
+                BookingRole.BOOKER, bookerId, state, LocalDateTime.now(), null, from, size);
         return bookings.stream().map(BookingMapper::toBookingServerDto).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<BookingServerDto> getItemBookings(Long ownerId, State state, Integer from, Integer size) {
-        findUserOrThrowException(userRepo, ownerId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
-
-        List<Booking> bookings;
-        switch (state) {
-            case ALL:
-                bookings = bookingRepo.findAllByItemOwnerId(ownerId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepo.findAllByItemOwnerIdAndStartBeforeAndEndAfter(
-                        ownerId, LocalDateTime.now(), LocalDateTime.now(), pageable
-                );
-                break;
-            case PAST:
-                bookings = bookingRepo.findAllByItemOwnerIdAndEndBefore(
-                        ownerId, LocalDateTime.now(), pageable
-                );
-                break;
-            case FUTURE:
-                bookings = bookingRepo.findAllByItemOwnerIdAndStartAfter(
-                        ownerId, LocalDateTime.now(), pageable
-                );
-                break;
-            default:
-                bookings = bookingRepo.findAllByItemOwnerIdAndStatus(
-                        ownerId, Status.valueOf(state.toString()), pageable
-                );
-                break;
-        }
+        entityFinder.checkUserExistsOrThrowException(ownerId);
+        List<Booking> bookings = bookingRepo.findAllByRole(
+                BookingRole.OWNER, ownerId, state, LocalDateTime.now(), null, from, size);
         return bookings.stream().map(BookingMapper::toBookingServerDto).collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingServerDto> getUserBookingsAfter(Long bookerId, State state, String cursor, Integer size) {
+        entityFinder.checkUserExistsOrThrowException(bookerId);
+        List<Booking> bookings = bookingRepo.findAllByRole(
+                BookingRole.BOOKER, bookerId, state, LocalDateTime.now(), toBookingCursor(cursor), 0, size + 1);
+        return toBookingPage(bookings, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingServerDto> getItemBookingsAfter(Long ownerId, State state, String cursor, Integer size) {
+        entityFinder.checkUserExistsOrThrowException(ownerId);
+        List<Booking> bookings = bookingRepo.findAllByRole(
+                BookingRole.OWNER, ownerId, state, LocalDateTime.now(), toBookingCursor(cursor), 0, size + 1);
+        return toBookingPage(bookings, size);
+    }
+
+    /**
+     * Возвращает причину, по которой владелец не может изменить статус бронирования, или null.
+     * Проверки идут в том же порядке, в каком их выполнял прежний сценарий чтения и записи.
+     */
+    private RuntimeException approvalFailure(Long ownerId, Booking booking) {
+        if (booking == null) {
+            return new EntityNotFoundException("Бронирование не найдено");
+        }
+        if (booking.getStatus() != Status.WAITING) {
+            return new InvalidOperationException("Нельзя изменить статус бронирования повторно");
+        }
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return new UnauthorizedAccessException("Бронирование может подтвердить или отклонить только владелец вещи");
+        }
+        return null;
+    }
+
+    private void checkCanBook(Long userId, Item item) {
+        if (item == null) {
+            throw new EntityNotFoundException("Вещь не найдена");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new UnauthorizedAccessException("Владелец вещи не может забронировать собственную вещь");
+        }
+        if (!item.getAvailable()) {
+            throw new ItemNotAvailableException("Вещь недоступна для бронирования");
+        }
+    }
+
+    private void checkNoOverlap(Collection<Booking> accepted, BookingClientDto bookingClientDto) {
+        boolean overlaps = accepted.stream().anyMatch(booking ->
+                booking.getItem().getId().equals(bookingClientDto.getItemId()) &&
+                        booking.getStart().isBefore(bookingClientDto.getEnd()) &&
+                        booking.getEnd().isAfter(bookingClientDto.getStart()));
+        if (overlaps) {
+            throw new BookingConflictException("Вещь уже забронирована на указанный период");
+        }
+    }
+
+    private RuntimeException translateOverlap(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException &&
+                NO_OVERLAP_CONSTRAINT.equals(((ConstraintViolationException) e.getCause()).getConstraintName())) {
+            return new BookingConflictException("Вещь уже забронирована на указанный период");
+        }
+        return e;
+    }
+
+    /**
+     * Проверка по индексу выполняется под блокировкой вещи; найденный конфликт подтверждается
+     * запросом к базе, а устаревшие данные индекса по вещи сбрасываются.
+     */
+    private void checkNoOverlap(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        if (!bookingIndex.hasConflict(itemId, start, end)) {
+            return;
+        }
+        if (bookingRepo.existsOverlapping(itemId, start, end, ACTIVE_STATUSES)) {
+            throw new BookingConflictException("Вещь уже забронирована на указанный период");
+        }
+        log.warn("Индекс бронирований вещи ID " + itemId + " устарел и будет перезагружен");
+        bookingIndex.evict(itemId);
+    }
+
+    private Cursor toBookingCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Cursor cursor = Cursor.decode(token);
+        if (cursor.getPosition() == null || cursor.getId() > Integer.MAX_VALUE) {
+            throw new InvalidOperationException("Некорректный курсор пагинации");
+        }
+        return cursor;
+    }
+
+    private CursorPage<BookingServerDto> toBookingPage(List<Booking> bookings, int size) {
+        CursorPage<Booking> page = CursorPage.of(bookings, size, booking -> new Cursor(booking.getStart(), booking.getId()));
+        List<BookingServerDto> items = page.getItems().stream()
+                .map(BookingMapper::toBookingServerDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, page.getNextCursor());
+    }
 }
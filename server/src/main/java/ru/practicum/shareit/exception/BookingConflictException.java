@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingConflictException extends IllegalArgumentException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
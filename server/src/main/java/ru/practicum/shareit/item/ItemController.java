@@ -2,14 +2,17 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.comment.model.CommentServerDto;
+import ru.practicum.shareit.item.model.AvailabilitySlotDto;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.Constants.USER_ID;
@@ -38,13 +41,23 @@ public class ItemController {
         return itemService.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getItemAvailability(
+            @PathVariable Integer itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Принят запрос на получение свободных периодов вещи ID " + itemId);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemServerDto> getItemsBySearch(
             @RequestParam String text,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean ranked) {
         log.info("Принят запрос на получение списка вещей по поисковой строке \"" + text + "\"");
-        return itemService.getItemsBySearch(text, from, size);
+        return itemService.getItemsBySearch(text, from, size, ranked);
     }
 
     @PostMapping
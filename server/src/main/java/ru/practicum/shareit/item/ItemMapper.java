@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
+import ru.practicum.shareit.item.model.RequestItemView;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
@@ -26,6 +27,19 @@ public class ItemMapper {
         );
     }
 
+    public static ItemServerDto toItemServerDto(RequestItemView item) {
+        return new ItemServerDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getRequestId(),
+                null,
+                null,
+                null
+        );
+    }
+
     public static Item toItem(User itemUser, Request request, ItemClientDto itemDto) {
         return new Item(
                 null,
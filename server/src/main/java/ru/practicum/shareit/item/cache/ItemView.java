@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.ArrayList;
+
+/**
+ * Общая для всех пользователей часть карточки вещи: сама вещь и комментарии.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemView {
+    private final Long ownerId;
+    private final ItemServerDto item;
+
+    /**
+     * Копия карточки, которую можно дополнять бронированиями, не затрагивая кэш.
+     */
+    public ItemServerDto toItemServerDto() {
+        return new ItemServerDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId(), null, null, new ArrayList<>(item.getComments()));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.TransactionCallbacks.afterCommit;
+
+/**
+ * Кэш карточек вещей. Общая часть и бронирования для владельца хранятся раздельно и
+ * сбрасываются после фиксации транзакций, которые их меняют. Бронирования для владельца
+ * устаревают и сами, когда наступает начало ближайшего бронирования.
+ */
+@Component
+public class ItemViewCache {
+    static final String VIEWS_CACHE_NAME = "item.view";
+    static final String OWNER_BOOKINGS_CACHE_NAME = "item.owner-bookings";
+
+    private final Cache<Integer, ItemView> views;
+    private final Cache<Integer, OwnerBookingsView> ownerBookings;
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${item.cache.max-size:10000}") long maxSize,
+                         @Value("${item.cache.ttl:PT10M}") Duration ttl) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ownerBookings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilNextBooking(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, VIEWS_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerBookings, OWNER_BOOKINGS_CACHE_NAME);
+    }
+
+    public ItemView getView(Integer itemId, Function<Integer, ItemView> loader) {
+        return views.get(itemId, loader);
+    }
+
+    public OwnerBookingsView getOwnerBookings(Integer itemId, Function<Integer, OwnerBookingsView> loader) {
+        return ownerBookings.get(itemId, loader);
+    }
+
+    public void evictView(Integer itemId) {
+        afterCommit(() -> views.invalidate(itemId));
+    }
+
+    public void evictOwnerBookings(Collection<Integer> itemIds) {
+        afterCommit(() -> ownerBookings.invalidateAll(itemIds));
+    }
+
+    public void evictAll() {
+        afterCommit(() -> {
+            views.invalidateAll();
+            ownerBookings.invalidateAll();
+        });
+    }
+
+    private static class UntilNextBooking implements Expiry<Integer, OwnerBookingsView> {
+        private final Duration ttl;
+
+        UntilNextBooking(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Integer itemId, OwnerBookingsView view, long currentTime) {
+            if (view.getNextBooking() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilNext = Duration.between(LocalDateTime.now(), view.getNextBooking().getStart());
+            if (untilNext.isNegative()) {
+                return 0;
+            }
+            return untilNext.compareTo(ttl) < 0 ? untilNext.toNanos() : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer itemId, OwnerBookingsView view, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Integer itemId, OwnerBookingsView view, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingItemDto;
+
+/**
+ * Последнее и ближайшее бронирования вещи, которые видит только её владелец.
+ */
+@Getter
+@AllArgsConstructor
+public class OwnerBookingsView {
+    private final BookingItemDto lastBooking;
+    private final BookingItemDto nextBooking;
+}
@@ -2,10 +2,13 @@ package ru.practicum.shareit.item.comment.dao;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findAllByItemId(Integer itemId);
+    @Query("select c from Comment c join fetch c.author where c.item.id in ?1 order by c.id")
+    List<Comment> findAllByItemIdIn(Collection<Integer> itemIds);
 }
@@ -2,20 +2,55 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RequestItemView;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Integer> {
+public interface ItemRepository extends JpaRepository<Item, Integer>, ItemRepositoryCustom {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Integer itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllForUpdateByIdIn(Collection<Integer> itemIds);
 
     List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 
+    /**
+     * Поиск доступных вещей по подстроке в названии или описании без учёта регистра.
+     */
+    default List<Item> search(String text, Pageable pageable) {
+        return searchAvailable(substringPattern(text), pageable);
+    }
+
+    /**
+     * Шаблон like для поиска подстроки без учёта регистра; спецсимволы экранируются символом '\'.
+     */
+    static String substringPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     @Query("select i from Item i " +
             "where i.available = true " +
-            "and (lower(i.name) like lower(concat('%', ?1, '%')) " +
-            "or lower(i.description) like lower(concat('%', ?1, '%')))")
-    List<Item> search(String text, Pageable pageable);
+            "and (lower(i.name) like ?1 escape '\\' or lower(i.description) like ?1 escape '\\') " +
+            "order by i.id")
+    List<Item> searchAvailable(String pattern, Pageable pageable);
 
-    List<Item> findAllByRequestId(Integer id);
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.request.id as requestId " +
+            "from Item i where i.request.id in ?1 order by i.id")
+    List<RequestItemView> findAllByRequestIdIn(Collection<Integer> requestIds);
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dao;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Доступные вещи, в названии или описании которых найдено каждое слово запроса,
+     * по убыванию релевантности.
+     */
+    List<Item> searchRanked(List<String> terms, int offset, int limit);
+}
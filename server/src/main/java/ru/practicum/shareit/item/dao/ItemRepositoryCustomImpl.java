@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.dao;
+
+import org.hibernate.Session;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Слова запроса сопоставляются по отдельности и ранжируются в самом запросе. На PostgreSQL слово
+ * находится как подстрока или по сходству триграмм pg_trgm (оператор {@code <%} использует
+ * GIN-индексы idx_items_*_trgm), так что допускаются опечатки; оценка — сумма word_similarity
+ * по словам, совпадения в названии весят вдвое больше. На остальных базах слово ищется
+ * только как подстрока, а оценка — число полей, в которых оно найдено, с тем же весом названия.
+ * База определяется по метаданным соединения: диалект Hibernate задан для PostgreSQL и при
+ * запуске на H2 в режиме совместимости.
+ */
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final String NAME = "lower(i.name)";
+    private static final String DESCRIPTION = "lower(i.description)";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private volatile Boolean postgresql;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchRanked(List<String> terms, int offset, int limit) {
+        boolean trigrams = isPostgresql();
+        StringJoiner where = new StringJoiner(" and ", "where i.available = true and ", "");
+        StringJoiner score = new StringJoiner(" + ");
+        for (int i = 0; i < terms.size(); i++) {
+            String term = ":term" + i;
+            String pattern = ":pattern" + i;
+            String like = " like " + pattern + " escape '\\'";
+            String substring = NAME + like + " or " + DESCRIPTION + like;
+            if (trigrams) {
+                where.add("(" + substring + " or " + term + " <% " + NAME + " or " + term + " <% " + DESCRIPTION + ")");
+                score.add("2 * word_similarity(" + term + ", " + NAME + ") + " +
+                        "coalesce(word_similarity(" + term + ", " + DESCRIPTION + "), 0)");
+            } else {
+                where.add("(" + substring + ")");
+                score.add("case when " + NAME + like + " then 2 else 0 end + " +
+                        "case when " + DESCRIPTION + like + " then 1 else 0 end");
+            }
+        }
+        Query query = em.createNativeQuery(
+                "select i.* from items i " + where + " order by " + score + " desc, i.id", Item.class);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("pattern" + i, ItemRepository.substringPattern(terms.get(i)));
+            if (trigrams) {
+                query.setParameter("term" + i, terms.get(i));
+            }
+        }
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private boolean isPostgresql() {
+        if (postgresql == null) {
+            postgresql = POSTGRESQL.equals(em.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgresql;
+    }
+}
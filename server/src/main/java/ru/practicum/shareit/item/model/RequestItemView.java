@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * Проекция вещи для ответа на запрос: только поля, которые попадают в ответ,
+ * без загрузки сущности, её владельца и запроса.
+ */
+public interface RequestItemView {
+    Integer getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Integer getRequestId();
+}
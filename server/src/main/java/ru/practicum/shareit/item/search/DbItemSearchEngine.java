@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск запросом к базе. Ранжированный поиск сопоставляет слова запроса по отдельности
+ * и упорядочивает результат в самом запросе, см. {@link ru.practicum.shareit.item.dao.ItemRepositoryCustomImpl}.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "db", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DbItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepo;
+
+    @Override
+    public List<ItemServerDto> search(String text, Integer from, Integer size) {
+        return itemRepo.search(text, PageRequest.of(from / size, size)).stream()
+                .map(ItemMapper::toItemServerDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemServerDto> searchRanked(String text, Integer from, Integer size) {
+        List<String> terms = ItemDocument.tokens(ItemDocument.toKey(text));
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepo.searchRanked(terms, from / size * size, size).stream()
+                .map(ItemMapper::toItemServerDto)
+                .collect(Collectors.toList());
+    }
+}
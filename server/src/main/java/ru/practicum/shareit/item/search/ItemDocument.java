@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+class ItemDocument {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Integer id;
+    private final Long ownerId;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final Integer requestId;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final String nameKey;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final String descriptionKey;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<String> nameTokens;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<String> descriptionTokens;
+
+    ItemDocument(Integer id, Long ownerId, String name, String description, Boolean available, Integer requestId) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+        this.nameKey = toKey(name);
+        this.descriptionKey = toKey(description);
+        this.nameTokens = tokens(nameKey);
+        this.descriptionTokens = tokens(descriptionKey);
+    }
+
+    static ItemDocument of(Item item) {
+        return new ItemDocument(
+                item.getId(),
+                item.getOwner().getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getRequest() != null ? item.getRequest().getId() : null
+        );
+    }
+
+    static String toKey(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokens(String key) {
+        return Arrays.stream(SEPARATORS.split(key))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    boolean matches(String query) {
+        return nameKey.contains(query) || descriptionKey.contains(query);
+    }
+
+    ItemServerDto toItemServerDto() {
+        return new ItemServerDto(id, name, description, available, requestId, null, null, null);
+    }
+}
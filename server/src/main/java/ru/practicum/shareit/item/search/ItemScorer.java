@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+/**
+ * Оценка релевантности вещи поисковому запросу. Каждое слово запроса должно найтись
+ * в названии или описании: точно, как начало слова, как подстрока или с опечаткой.
+ * Совпадения в названии весят больше, повторы слова в поле повышают оценку.
+ */
+@UtilityClass
+class ItemScorer {
+    static final double NAME_WEIGHT = 2.0;
+    static final double EXACT = 1.0;
+    static final double PREFIX = 0.8;
+    static final double SUBSTRING = 0.5;
+    static final double TYPO = 0.4;
+
+    /**
+     * @return оценка больше нуля или 0, если какое-либо слово запроса не найдено
+     */
+    double score(ItemDocument document, List<String> terms) {
+        double total = 0;
+        for (String term : terms) {
+            double name = fieldScore(term, document.getNameTokens());
+            double description = fieldScore(term, document.getDescriptionTokens());
+            if (name == 0 && description == 0) {
+                return 0;
+            }
+            total += NAME_WEIGHT * name + description;
+        }
+        return total;
+    }
+
+    /**
+     * Допустимое число опечаток зависит от длины слова: в коротких словах опечатки не допускаются.
+     */
+    int maxTypos(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    double matchQuality(String term, String token, int maxTypos) {
+        if (token.equals(term)) {
+            return EXACT;
+        }
+        if (token.startsWith(term)) {
+            return PREFIX;
+        }
+        if (token.contains(term)) {
+            return SUBSTRING;
+        }
+        if (maxTypos == 0) {
+            return 0;
+        }
+        int typos = Levenshtein.distance(term, token, maxTypos);
+        return typos <= maxTypos ? TYPO / typos : 0;
+    }
+
+    private double fieldScore(String term, List<String> tokens) {
+        int maxTypos = maxTypos(term);
+        double best = 0;
+        int hits = 0;
+        for (String token : tokens) {
+            double quality = matchQuality(term, token, maxTypos);
+            if (quality > 0) {
+                hits++;
+                best = Math.max(best, quality);
+            }
+        }
+        return hits == 0 ? 0 : best * (1 + Math.log(hits));
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.TransactionCallbacks.afterCommit;
+
+/**
+ * Кэш результатов поиска: нормализованный запрос и страница отображаются в список ID вещей.
+ * Ключ включает поколение каталога, которое увеличивается после фиксации каждого изменения
+ * вещей, поэтому устаревшие записи не читаются и вытесняются по мере заполнения кэша.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+    static final String CACHE_NAME = "item.search";
+
+    private final ItemRepository itemRepo;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, List<Integer>> cache;
+
+    public ItemSearchCache(ItemRepository itemRepo,
+                           MeterRegistry meterRegistry,
+                           @Value("${search.cache.max-weight:100000}") long maxWeight) {
+        this.itemRepo = itemRepo;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, List<Integer> ids) -> 1 + key.text.length() / 8 + ids.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".generation", generation, AtomicLong::get)
+                .description("Поколение каталога вещей")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает закэшированный результат, загружая вещи по ID, или выполняет поиск через loader.
+     */
+    public List<ItemServerDto> search(String text, Integer from, Integer size, boolean ranked,
+                                      Supplier<List<ItemServerDto>> loader) {
+        Key key = new Key(generation.get(), normalize(text, ranked), from / size, size, ranked);
+        List<Integer> ids = cache.getIfPresent(key);
+        if (ids != null) {
+            log.debug("Результат поиска по строке \"" + text + "\" получен из кэша");
+            return load(ids);
+        }
+        List<ItemServerDto> items = loader.get();
+        cache.put(key, items.stream().map(ItemServerDto::getId).collect(Collectors.toUnmodifiableList()));
+        return items;
+    }
+
+    /**
+     * Увеличивает поколение каталога после фиксации текущей транзакции.
+     */
+    public void onCatalogChanged() {
+        afterCommit(generation::incrementAndGet);
+    }
+
+    private List<ItemServerDto> load(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Item> items = itemRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::toItemServerDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Поиск без учёта регистра, а ранжированный поиск ещё и по отдельным словам,
+     * поэтому такие запросы приводятся к одному ключу.
+     */
+    private static String normalize(String text, boolean ranked) {
+        String key = ItemDocument.toKey(text);
+        return ranked ? String.join(" ", ItemDocument.tokens(key)) : key;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final long generation;
+        private final String text;
+        private final int page;
+        private final int size;
+        private final boolean ranked;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании без учёта регистра.
+ * Реализация выбирается свойством search.engine (db или memory).
+ */
+public interface ItemSearchEngine {
+
+    List<ItemServerDto> search(String text, Integer from, Integer size);
+
+    /**
+     * Поиск по словам запроса с допуском опечаток, результат упорядочен по релевантности.
+     */
+    List<ItemServerDto> searchRanked(String text, Integer from, Integer size);
+
+    default void onItemSaved(Item item) {
+    }
+
+    default void onOwnerRemoved(Long ownerId) {
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemServerDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.TransactionCallbacks.afterCommit;
+
+/**
+ * Поиск по n-граммному индексу в памяти процесса. Индекс строится из базы при старте
+ * и обновляется после фиксации транзакций, изменивших вещи.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class MemoryItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepo;
+    private final NgramIndex index = new NgramIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<ItemDocument> documents = itemRepo.findAll().stream()
+                .map(ItemDocument::of)
+                .collect(Collectors.toList());
+        index.rebuild(documents);
+        log.info("Поисковый индекс вещей построен, вещей в индексе: " + documents.size());
+    }
+
+    @Override
+    public List<ItemServerDto> search(String text, Integer from, Integer size) {
+        return index.search(ItemDocument.toKey(text), from / size * size, size).stream()
+                .map(ItemDocument::toItemServerDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemServerDto> searchRanked(String text, Integer from, Integer size) {
+        List<String> terms = ItemDocument.tokens(ItemDocument.toKey(text));
+        return index.searchRanked(terms, from / size * size, size).stream()
+                .map(ItemDocument::toItemServerDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        ItemDocument document = ItemDocument.of(item);
+        afterCommit(() -> index.put(document));
+    }
+
+    @Override
+    public void onOwnerRemoved(Long ownerId) {
+        afterCommit(() -> index.removeOwner(ownerId));
+    }
+}
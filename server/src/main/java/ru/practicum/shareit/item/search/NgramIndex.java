@@ -0,0 +1,297 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс триграмм названия и описания вещей. Кандидаты, найденные
+ * пересечением списков, проверяются на вхождение подстроки, поэтому результат совпадает
+ * с поиском через like '%text%'. Запросы короче триграммы проверяются перебором.
+ * Словарь слов используется ранжированным поиском для поиска по началу слова и с опечатками;
+ * слова-кандидаты на опечатку отбираются по общим триграммам и только затем сравниваются
+ * по расстоянию Левенштейна.
+ */
+class NgramIndex {
+    static final int N = 3;
+
+    private final Map<String, IntPostingList> postings = new HashMap<>();
+    private final TreeMap<String, IntPostingList> words = new TreeMap<>();
+    private final Map<String, Set<String>> wordGrams = new HashMap<>();
+    private final TreeMap<Integer, ItemDocument> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void rebuild(Collection<ItemDocument> rebuilt) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            words.clear();
+            wordGrams.clear();
+            documents.clear();
+            rebuilt.forEach(this::doPut);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            doPut(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            documents.values().stream()
+                    .filter(document -> document.getOwnerId().equals(ownerId))
+                    .forEach(document -> ids.add(document.getId()));
+            ids.forEach(this::doRemove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<ItemDocument> search(String query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<ItemDocument> found = new ArrayList<>();
+            int skipped = 0;
+            for (int id : candidates(query)) {
+                ItemDocument document = documents.get(id);
+                if (!document.getAvailable() || !document.matches(query)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                found.add(document);
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вещи, в которых найдено каждое слово запроса, по убыванию оценки {@link ItemScorer}.
+     */
+    List<ItemDocument> searchRanked(List<String> terms, int offset, int limit) {
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet candidates = null;
+            for (String term : terms) {
+                BitSet termCandidates = candidates(term, ItemScorer.maxTypos(term));
+                if (candidates == null) {
+                    candidates = termCandidates;
+                } else {
+                    candidates.and(termCandidates);
+                }
+            }
+            Comparator<ScoredDocument> byRelevance = Comparator.comparingDouble(ScoredDocument::getScore).reversed()
+                    .thenComparing(scoredDocument -> scoredDocument.getDocument().getId());
+            PriorityQueue<ScoredDocument> top = new PriorityQueue<>(byRelevance.reversed());
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                ItemDocument document = documents.get(id);
+                if (!document.getAvailable()) {
+                    continue;
+                }
+                double score = ItemScorer.score(document, terms);
+                if (score > 0) {
+                    top.add(new ScoredDocument(document, score));
+                    if (top.size() > offset + limit) {
+                        top.poll();
+                    }
+                }
+            }
+            return top.stream()
+                    .sorted(byRelevance)
+                    .skip(offset)
+                    .map(ScoredDocument::getDocument)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String query) {
+        Set<String> grams = grams(query);
+        if (grams.isEmpty()) {
+            return documents.keySet().stream().mapToInt(Integer::intValue).toArray();
+        }
+        List<IntPostingList> lists = new ArrayList<>();
+        for (String gram : grams) {
+            IntPostingList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntPostingList::size));
+        IntPostingList shortest = lists.get(0);
+        List<IntPostingList> others = lists.subList(1, lists.size());
+        return Arrays.stream(shortest.toArray())
+                .filter(id -> others.stream().allMatch(list -> list.contains(id)))
+                .toArray();
+    }
+
+    /**
+     * Вещи, содержащие слово с началом term, слово в пределах maxTypos опечаток от term
+     * или подстроку term. Последние отбираются по триграммам и уточняются при оценке.
+     */
+    private BitSet candidates(String term, int maxTypos) {
+        BitSet found = new BitSet();
+        for (IntPostingList list : words.subMap(term, term + Character.MAX_VALUE).values()) {
+            list.forEach(found::set);
+        }
+        if (maxTypos > 0) {
+            for (String word : typoCandidates(term, maxTypos)) {
+                if (Levenshtein.distance(term, word, maxTypos) <= maxTypos) {
+                    words.get(word).forEach(found::set);
+                }
+            }
+        }
+        for (int id : candidates(term)) {
+            found.set(id);
+        }
+        return found;
+    }
+
+    /**
+     * Каждая правка затрагивает не больше N триграмм слова, поэтому слово в пределах maxTypos
+     * опечаток разделяет с term не меньше |grams(term)| - maxTypos * N триграмм. Края слова
+     * дополняются пробелами, чтобы оценка оставалась положительной и для коротких слов.
+     */
+    private Collection<String> typoCandidates(String term, int maxTypos) {
+        Set<String> termGrams = paddedGrams(term);
+        int minShared = termGrams.size() - maxTypos * N;
+        if (minShared <= 0) {
+            return words.keySet();
+        }
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : termGrams) {
+            Set<String> matching = wordGrams.get(gram);
+            if (matching != null) {
+                matching.forEach(word -> shared.merge(word, 1, Integer::sum));
+            }
+        }
+        return shared.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minShared)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private void doPut(ItemDocument document) {
+        doRemove(document.getId());
+        documents.put(document.getId(), document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new IntPostingList()).add(document.getId());
+        }
+        for (String word : words(document)) {
+            IntPostingList list = words.get(word);
+            if (list == null) {
+                list = new IntPostingList();
+                words.put(word, list);
+                for (String gram : paddedGrams(word)) {
+                    wordGrams.computeIfAbsent(gram, key -> new HashSet<>()).add(word);
+                }
+            }
+            list.add(document.getId());
+        }
+    }
+
+    private void doRemove(Integer id) {
+        ItemDocument removed = documents.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String gram : grams(removed)) {
+            IntPostingList list = postings.get(gram);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        for (String word : words(removed)) {
+            IntPostingList list = words.get(word);
+            list.remove(id);
+            if (list.isEmpty()) {
+                words.remove(word);
+                for (String gram : paddedGrams(word)) {
+                    Set<String> matching = wordGrams.get(gram);
+                    matching.remove(word);
+                    if (matching.isEmpty()) {
+                        wordGrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(ItemDocument document) {
+        Set<String> grams = grams(document.getNameKey());
+        grams.addAll(grams(document.getDescriptionKey()));
+        return grams;
+    }
+
+    private static Set<String> words(ItemDocument document) {
+        Set<String> words = new HashSet<>(document.getNameTokens());
+        words.addAll(document.getDescriptionTokens());
+        return words;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            grams.add(text.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    private static Set<String> paddedGrams(String word) {
+        String padding = " ".repeat(N - 1);
+        return grams(padding + word + padding);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ScoredDocument {
+        private final ItemDocument document;
+        private final double score;
+    }
+}
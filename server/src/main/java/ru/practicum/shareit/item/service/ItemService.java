@@ -2,9 +2,11 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.comment.model.CommentServerDto;
+import ru.practicum.shareit.item.model.AvailabilitySlotDto;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +19,9 @@ public interface ItemService {
 
     List<ItemServerDto> getAllUserItems(Long ownerId, Integer from, Integer size);
 
-    List<ItemServerDto> getItemsBySearch(String text, Integer from, Integer size);
+    List<ItemServerDto> getItemsBySearch(String text, Integer from, Integer size, Boolean ranked);
+
+    List<AvailabilitySlotDto> getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to);
 
     CommentServerDto addComment(Long authorId, Integer itemId, CommentClientDto commentDto);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
@@ -14,74 +15,81 @@ import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.exception.UnauthorizedAccessException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.cache.OwnerBookingsView;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.dao.CommentRepository;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.comment.model.CommentServerDto;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.AvailabilitySlotDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
-import ru.practicum.shareit.request.dao.RequestRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.Request;
-import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static ru.practicum.shareit.EntityFinder.*;
-
 @Service
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepo;
-    private final UserRepository userRepo;
     private final BookingRepository bookingRepo;
     private final CommentRepository commentRepo;
-    private final RequestRepository requestRepo;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemViewCache itemViewCache;
+    private final EntityFinder entityFinder;
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemServerDto> getAllUserItems(Long ownerId, Integer from, Integer size) {
-        User owner = findUserOrThrowException(userRepo, ownerId);
+        entityFinder.checkUserExistsOrThrowException(ownerId);
         List<Item> userItems = itemRepo.findAllByOwnerId(
                 ownerId,
                 PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id")));
         log.info("Получен список всех вещей пользователя ID " + ownerId);
-        return userItems.stream()
+        List<ItemServerDto> itemDtos = userItems.stream()
                 .map(ItemMapper::toItemServerDto)
-                .map(this::setLastAndNextBookings)
-                .map(this::setComments)
                 .collect(Collectors.toList());
+        setComments(itemDtos);
+        return setLastAndNextBookings(itemDtos);
     }
 
     @Transactional(readOnly = true)
     @Override
     public ItemServerDto getItem(Long userId, Integer itemId) {
-        Item item = findItemOrThrowException(itemRepo, itemId);
+        ItemView itemView = itemViewCache.getView(itemId, this::loadItemView);
         log.info("Получена вещь ID " + itemId);
-        ItemServerDto itemServerDto = ItemMapper.toItemServerDto(item);
-        if (userId.equals(item.getOwner().getId())) {
+        ItemServerDto itemServerDto = itemView.toItemServerDto();
+        if (userId.equals(itemView.getOwnerId())) {
             log.info("Запрос принят от владельца вещи. Будет добавлена информация о бронированиях");
-            setLastAndNextBookings(itemServerDto);
+            OwnerBookingsView bookings = itemViewCache.getOwnerBookings(itemId, this::loadOwnerBookings);
+            itemServerDto.setLastBooking(bookings.getLastBooking());
+            itemServerDto.setNextBooking(bookings.getNextBooking());
         }
-        setComments(itemServerDto);
         return itemServerDto;
     }
 
     @Override
     public ItemServerDto addItem(Long ownerId, ItemClientDto itemDto) {
-        User owner = findUserOrThrowException(userRepo, ownerId);
+        User owner = entityFinder.getUserReferenceOrThrowException(ownerId);
         Request request = null;
         if (itemDto.getRequestId() != null) {
-            request = findRequestOrThrowException(requestRepo, itemDto.getRequestId());
+            request = entityFinder.findRequestOrThrowException(itemDto.getRequestId());
         }
         Item item = itemRepo.save(ItemMapper.toItem(owner, request, itemDto));
+        searchEngine.onItemSaved(item);
+        searchCache.onCatalogChanged();
 
         StringBuilder logBuilder = new StringBuilder(
                 "Добавлена новая вещь ID " + item.getId() + " пользователя ID " + ownerId);
@@ -96,8 +104,8 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemServerDto editItem(Long ownerId, Integer itemId, ItemClientDto itemDto) {
-        findUserOrThrowException(userRepo, ownerId);
-        Item itemFromRepo = findItemOrThrowException(itemRepo, itemId);
+        entityFinder.checkUserExistsOrThrowException(ownerId);
+        Item itemFromRepo = entityFinder.findItemOrThrowException(itemId);
 
         if (!ownerId.equals(itemFromRepo.getOwner().getId())) {
             throw new UnauthorizedAccessException("Пользователь не является владельцем вещи");
@@ -112,26 +120,58 @@ public class ItemServiceImpl implements ItemService {
             itemFromRepo.setAvailable(itemDto.getAvailable());
         }
         Item item = itemRepo.save(itemFromRepo);
+        searchEngine.onItemSaved(item);
+        searchCache.onCatalogChanged();
+        itemViewCache.evictView(itemId);
         log.info("Отредактированы данные вещи ID " + itemId + " пользователя ID " + ownerId);
         return ItemMapper.toItemServerDto(item);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemServerDto> getItemsBySearch(String text, Integer from, Integer size) {
+    public List<ItemServerDto> getItemsBySearch(String text, Integer from, Integer size, Boolean ranked) {
         if (text.isBlank()) {
             log.info("Строка поиска пуста. Возвращён пустой список");
             return Collections.emptyList();
         }
-        List<Item> items = itemRepo.search(text, PageRequest.of(from / size, size));
+        List<ItemServerDto> items = searchCache.search(text, from, size, ranked, () -> ranked
+                ? searchEngine.searchRanked(text, from, size)
+                : searchEngine.search(text, from, size));
         log.info("Получен список вещей по поисковой строке \"" + text + "\"");
-        return items.stream().map(ItemMapper::toItemServerDto).collect(Collectors.toList());
+        return items;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilitySlotDto> getItemAvailability(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidOperationException("Начало периода должно быть раньше его окончания");
+        }
+        entityFinder.checkItemExistsOrThrowException(itemId);
+        List<Booking> bookings = bookingRepo.findAllInPeriod(
+                itemId, from, to, List.of(Status.WAITING, Status.APPROVED));
+
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Booking booking : bookings) {
+            if (booking.getStart().isAfter(freeFrom)) {
+                slots.add(new AvailabilitySlotDto(freeFrom, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(freeFrom, to));
+        }
+        log.info("Получены свободные периоды вещи ID " + itemId + " с " + from + " по " + to);
+        return slots;
     }
 
     @Override
     public CommentServerDto addComment(Long authorId, Integer itemId, CommentClientDto commentDto) {
-        User user = findUserOrThrowException(userRepo, authorId);
-        Item item = findItemOrThrowException(itemRepo, itemId);
+        User user = entityFinder.findUserOrThrowException(authorId);
+        Item item = entityFinder.findItemOrThrowException(itemId);
 
         if (item.getOwner().getId().equals(authorId)) {
             throw new InvalidOperationException("Владелец не может оставлять комментарии к собственной вещи");
@@ -143,32 +183,59 @@ public class ItemServiceImpl implements ItemService {
                     "Пользователь, не бравший вещь в аренду, не может оставлять комментарии к ней");
         }
         Comment comment = commentRepo.save(CommentMapper.toComment(user, item, commentDto));
+        itemViewCache.evictView(itemId);
         log.info("Добавлен комментарий к вещи ID " + itemId + " от пользователя ID " + authorId);
         return CommentMapper.toCommentServerDto(comment);
     }
 
-    private ItemServerDto setLastAndNextBookings(ItemServerDto itemServerDto) {
-        List<Booking> bookings = bookingRepo.findAllByItemId(itemServerDto.getId());
-        Optional<BookingItemDto> lastBookingOpt = bookings.stream()
-                .filter(booking -> booking.getStatus() != Status.REJECTED)
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(Booking::getStart))
-                .map(BookingMapper::toBookingItemDto);
-        Optional<BookingItemDto> nextBookingOpt = bookings.stream()
-                .filter(booking -> booking.getStatus() != Status.REJECTED)
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .min(Comparator.comparing(Booking::getStart))
-                .map(BookingMapper::toBookingItemDto);
-        lastBookingOpt.ifPresent(itemServerDto::setLastBooking);
-        nextBookingOpt.ifPresent(itemServerDto::setNextBooking);
-        return itemServerDto;
+    private ItemView loadItemView(Integer itemId) {
+        Item item = entityFinder.findItemOrThrowException(itemId);
+        ItemServerDto itemServerDto = ItemMapper.toItemServerDto(item);
+        setComments(List.of(itemServerDto));
+        return new ItemView(item.getOwner().getId(), itemServerDto);
     }
 
-    private ItemServerDto setComments(ItemServerDto itemServerDto) {
-        List<CommentServerDto> comments = commentRepo.findAllByItemId(itemServerDto.getId()).stream()
-                .map(CommentMapper::toCommentServerDto)
-                .collect(Collectors.toList());
-        itemServerDto.setComments(comments);
-        return itemServerDto;
+    private OwnerBookingsView loadOwnerBookings(Integer itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        BookingItemDto lastBooking = bookingRepo.findLastBookingsByItemIds(List.of(itemId), now).stream()
+                .findFirst()
+                .map(BookingMapper::toBookingItemDto)
+                .orElse(null);
+        BookingItemDto nextBooking = bookingRepo.findNextBookingsByItemIds(List.of(itemId), now).stream()
+                .findFirst()
+                .map(BookingMapper::toBookingItemDto)
+                .orElse(null);
+        return new OwnerBookingsView(lastBooking, nextBooking);
+    }
+
+    private List<ItemServerDto> setLastAndNextBookings(List<ItemServerDto> itemServerDtos) {
+        if (itemServerDtos.isEmpty()) {
+            return itemServerDtos;
+        }
+        List<Integer> itemIds = itemServerDtos.stream().map(ItemServerDto::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, BookingItemDto> lastBookings = bookingRepo.findLastBookingsByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingItemDto));
+        Map<Integer, BookingItemDto> nextBookings = bookingRepo.findNextBookingsByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toBookingItemDto));
+        for (ItemServerDto itemServerDto : itemServerDtos) {
+            itemServerDto.setLastBooking(lastBookings.get(itemServerDto.getId()));
+            itemServerDto.setNextBooking(nextBookings.get(itemServerDto.getId()));
+        }
+        return itemServerDtos;
+    }
+
+    private List<ItemServerDto> setComments(List<ItemServerDto> itemServerDtos) {
+        if (itemServerDtos.isEmpty()) {
+            return itemServerDtos;
+        }
+        List<Integer> itemIds = itemServerDtos.stream().map(ItemServerDto::getId).collect(Collectors.toList());
+        Map<Integer, List<CommentServerDto>> comments = commentRepo.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentServerDto, Collectors.toList())));
+        for (ItemServerDto itemServerDto : itemServerDtos) {
+            itemServerDto.setComments(comments.getOrDefault(itemServerDto.getId(), new ArrayList<>()));
+        }
+        return itemServerDtos;
     }
 }
\ No newline at end of file
@@ -2,14 +2,17 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.RequestClientDto;
 import ru.practicum.shareit.request.model.RequestServerDto;
 import ru.practicum.shareit.request.service.RequestService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
 import static ru.practicum.shareit.Constants.USER_ID;
 
 @RestController
@@ -42,6 +45,20 @@ public class RequestController {
         return requestService.getOtherRequests(userId, from, size);
     }
 
+    @GetMapping(path = "/all", params = "cursor")
+    public ResponseEntity<List<RequestServerDto>> getOtherRequestsAfter(
+            @RequestHeader(USER_ID) Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Принят запрос на получение страницы запросов других пользователей по курсору");
+        CursorPage<RequestServerDto> page = requestService.getOtherRequestsAfter(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
     @GetMapping("/{requestId}")
     public RequestServerDto getRequest(@RequestHeader(USER_ID) Long userId,
                                        @PathVariable Integer requestId) {
@@ -2,8 +2,10 @@ package ru.practicum.shareit.request.dao;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Integer> {
@@ -11,5 +13,12 @@ public interface RequestRepository extends JpaRepository<Request, Integer> {
 
     List<Request> findAllByRequestorIdNot(Long userId, Pageable pageable);
 
-    int countByRequestorIdNot(Long userId);
+    /**
+     * Запросы других пользователей строго после позиции (created, id) в порядке убывания.
+     */
+    @Query("select r from Request r " +
+            "where r.requestor.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<Request> findAllByRequestorIdNotBefore(Long userId, LocalDateTime created, Integer requestId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.RequestClientDto;
 import ru.practicum.shareit.request.model.RequestServerDto;
 
@@ -12,5 +13,7 @@ public interface RequestService {
 
     List<RequestServerDto> getOtherRequests(Long userId, Integer from, Integer size);
 
+    CursorPage<RequestServerDto> getOtherRequestsAfter(Long userId, String cursor, Integer size);
+
     RequestServerDto getRequest(Long userId, Integer requestId);
 }
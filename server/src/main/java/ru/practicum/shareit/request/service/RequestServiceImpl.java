@@ -6,23 +6,26 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
+import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.ItemServerDto;
+import ru.practicum.shareit.item.model.RequestItemView;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.RequestMapper;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.model.RequestClientDto;
 import ru.practicum.shareit.request.model.RequestServerDto;
-import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import static ru.practicum.shareit.EntityFinder.findRequestOrThrowException;
-import static ru.practicum.shareit.EntityFinder.findUserOrThrowException;
-
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -30,11 +33,11 @@ import static ru.practicum.shareit.EntityFinder.findUserOrThrowException;
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepo;
     private final ItemRepository itemRepo;
-    private final UserRepository userRepo;
+    private final EntityFinder entityFinder;
 
     @Override
     public RequestServerDto addRequest(Long userId, RequestClientDto requestDto) {
-        User user = findUserOrThrowException(userRepo, userId);
+        User user = entityFinder.getUserReferenceOrThrowException(userId);
         Request request = requestRepo.save(RequestMapper.toRequest(user, requestDto));
         log.info("Добавлен новый запрос ID " + request.getId() + " от пользователя ID " + userId);
         return RequestMapper.toRequestServerDto(request);
@@ -43,43 +46,72 @@ public class RequestServiceImpl implements RequestService {
     @Transactional(readOnly = true)
     @Override
     public List<RequestServerDto> getUserRequests(Long userId) {
-        findUserOrThrowException(userRepo, userId);
+        entityFinder.checkUserExistsOrThrowException(userId);
         List<Request> userRequests = requestRepo.findAllByRequestorIdOrderByCreatedDesc(userId);
         log.info("Получен список всех запросов пользователя ID " + userId);
-        return userRequests.stream()
-                .map(RequestMapper::toRequestServerDto)
-                .map(this::setItems)
-                .collect(Collectors.toList());
+        return toRequestServerDtos(userRequests);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<RequestServerDto> getOtherRequests(Long userId, Integer from, Integer size) {
-        findUserOrThrowException(userRepo, userId);
+        entityFinder.checkUserExistsOrThrowException(userId);
         List<Request> requests = requestRepo.findAllByRequestorIdNot(
                 userId, PageRequest.of(from / size, size, Sort.by("created").descending()));
-        return requests.stream()
-                .map(RequestMapper::toRequestServerDto)
-                .map(this::setItems)
-                .collect(Collectors.toList());
+        return toRequestServerDtos(requests);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<RequestServerDto> getOtherRequestsAfter(Long userId, String cursor, Integer size) {
+        entityFinder.checkUserExistsOrThrowException(userId);
+        Cursor after = toRequestCursor(cursor);
+        List<Request> requests = after == null
+                ? requestRepo.findAllByRequestorIdNot(
+                        userId, PageRequest.of(0, size + 1, Sort.by("created", "id").descending()))
+                : requestRepo.findAllByRequestorIdNotBefore(
+                        userId, after.getPosition(), Math.toIntExact(after.getId()), PageRequest.of(0, size + 1));
+        CursorPage<Request> page = CursorPage.of(requests, size, request -> new Cursor(request.getCreated(), request.getId()));
+        return new CursorPage<>(toRequestServerDtos(page.getItems()), page.getNextCursor());
     }
 
     @Transactional(readOnly = true)
     @Override
     public RequestServerDto getRequest(Long userId, Integer requestId) {
-        findUserOrThrowException(userRepo, userId);
-        Request request = findRequestOrThrowException(requestRepo, requestId);
+        entityFinder.checkUserExistsOrThrowException(userId);
+        Request request = entityFinder.findRequestOrThrowException(requestId);
         log.info("Получен запрос ID " + requestId);
-        RequestServerDto requestServerDto = RequestMapper.toRequestServerDto(request);
-        setItems(requestServerDto);
-        return requestServerDto;
+        return toRequestServerDtos(List.of(request)).get(0);
     }
 
-    private RequestServerDto setItems(RequestServerDto requestDto) {
-        List<ItemServerDto> items = itemRepo.findAllByRequestId(requestDto.getId()).stream()
-                .map(ItemMapper::toItemServerDto)
+    /**
+     * Вещи для всех запросов страницы загружаются одним запросом к базе и группируются по ID запроса.
+     */
+    private List<RequestServerDto> toRequestServerDtos(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> requestIds = requests.stream().map(Request::getId).collect(Collectors.toList());
+        Map<Integer, List<ItemServerDto>> itemsByRequestId = itemRepo.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(RequestItemView::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemServerDto, Collectors.toList())));
+        List<RequestServerDto> requestDtos = requests.stream()
+                .map(RequestMapper::toRequestServerDto)
                 .collect(Collectors.toList());
-        requestDto.setItems(items);
-        return requestDto;
+        for (RequestServerDto requestDto : requestDtos) {
+            requestDto.setItems(itemsByRequestId.getOrDefault(requestDto.getId(), new ArrayList<>()));
+        }
+        return requestDtos;
+    }
+
+    private static Cursor toRequestCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Cursor cursor = Cursor.decode(token);
+        if (cursor.getPosition() == null || cursor.getId() > Integer.MAX_VALUE) {
+            throw new InvalidOperationException("Некорректный курсор пагинации");
+        }
+        return cursor;
     }
 }
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
+
 @RestController
 @RequiredArgsConstructor
 @Slf4j
@@ -16,11 +28,67 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper mapper;
+
+    /**
+     * Без параметров пагинации — все пользователи, как до её появления. Массив пишется по мере чтения
+     * из базы, поэтому память не зависит от числа пользователей, а ETag для него не считается.
+     */
+    @GetMapping(params = {"!from", "!size", "!cursor"})
+    public ResponseEntity<StreamingResponseBody> getAllUsersUnpaged(HttpServletRequest request) {
+        log.info("Принят запрос на получение всех пользователей");
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter users = mapper.writer().writeValuesAsArray(out)) {
+                userService.forEachUser(userDto -> {
+                    try {
+                        users.write(userDto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        log.info("Принят запрос на получение списка всех пользователей");
-        return userService.getAllUsers();
+    public List<UserDto> getAllUsers(
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Принят запрос на получение списка пользователей");
+        return userService.getAllUsers(from, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<UserDto>> getUsersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Принят запрос на получение страницы пользователей по курсору");
+        CursorPage<UserDto> page = userService.getUsersAfter(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Все пользователи в формате NDJSON: по одному JSON-объекту на строку. Ответ пишется
+     * по мере чтения из базы, поэтому память не зависит от числа пользователей.
+     */
+    @GetMapping(params = {"!from", "!size", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("Принят запрос на выгрузку всех пользователей");
+        StreamingResponseBody body = out -> userService.forEachUser(userDto -> {
+            try {
+                out.write(mapper.writeValueAsBytes(userDto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{userId}")
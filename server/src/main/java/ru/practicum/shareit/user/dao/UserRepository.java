@@ -1,9 +1,31 @@
 package ru.practicum.shareit.user.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserDto;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("select u.id from User u")
+    List<Long> findAllIds();
+
+    List<User> findAllByIdGreaterThan(Long userId, Pageable pageable);
+
+    /**
+     * Все пользователи в порядке ID без загрузки сущностей в контекст персистентности,
+     * строки читаются из курсора базы порциями по fetch size. Вызывать внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.model.UserDto(u.id, u.name, u.email) from User u order by u.id")
+    Stream<UserDto> streamAllOrderById();
 }
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.user.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.TransactionCallbacks.afterCommit;
+
+/**
+ * Битовые множества ID пользователей: найденных в базе при последнем построении и удалённых.
+ * Отрицательный ответ без запроса к базе даётся только для удалённых пользователей: последовательность
+ * не выдаёт их ID повторно. Любой другой ID может принадлежать пользователю, добавленному другим
+ * экземпляром сервиса из зарезервированного им блока последовательности, даже если он меньше
+ * уже известных ID, поэтому такие ID проверяются по базе. Удаление, выполненное этим экземпляром,
+ * учитывается после фиксации транзакции, а удаления в обход него — при очередном построении
+ * по пользователям, пропавшим из базы с прошлого построения.
+ */
+@Component
+@Slf4j
+public class KnownUserFilter {
+    private static final String METRIC_NAME = "user.filter";
+
+    private final UserRepository userRepo;
+    private final boolean enabled;
+    private final BitSet ids = new BitSet();
+    private final BitSet removed = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+
+    public KnownUserFilter(UserRepository userRepo,
+                           MeterRegistry meterRegistry,
+                           @Value("${user.filter.enabled:true}") boolean enabled) {
+        this.userRepo = userRepo;
+        this.enabled = enabled;
+        this.negatives = Counter.builder(METRIC_NAME + ".checks")
+                .tag("result", "negative")
+                .description("Проверки, отклонённые фильтром без запроса к базе")
+                .register(meterRegistry);
+        this.positives = Counter.builder(METRIC_NAME + ".checks")
+                .tag("result", "positive")
+                .description("Проверки, переданные фильтром в базу")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder(METRIC_NAME + ".false-positives")
+                .description("Положительные ответы фильтра, не подтверждённые базой")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".false-positive-rate", this, KnownUserFilter::falsePositiveRate)
+                .description("Доля ложноположительных среди положительных ответов фильтра")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", this, KnownUserFilter::size)
+                .description("Число пользователей в базе при последнем построении фильтра")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".removed", this, KnownUserFilter::removedCount)
+                .description("Число удалённых пользователей, отклоняемых фильтром без запроса к базе")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Заменяет множество ID пользователей найденными в базе, а пропавших с прошлого построения
+     * добавляет к удалённым.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${user.filter.rebuild-interval:PT1M}",
+            initialDelayString = "${user.filter.rebuild-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        BitSet found = new BitSet();
+        userRepo.findAllIds().stream()
+                .filter(KnownUserFilter::inRange)
+                .forEach(userId -> found.set(userId.intValue()));
+        lock.writeLock().lock();
+        try {
+            ids.andNot(found);
+            removed.or(ids);
+            ids.clear();
+            ids.or(found);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Фильтр пользователей построен, пользователей в фильтре: " + found.cardinality());
+    }
+
+    /**
+     * Возвращает false, только если пользователь с таким ID удалён или ID не положителен.
+     */
+    public boolean mightExist(Long userId) {
+        if (!enabled || !ready || userId == null || userId > Integer.MAX_VALUE) {
+            return true;
+        }
+        boolean mightExist;
+        lock.readLock().lock();
+        try {
+            mightExist = userId > 0 && !removed.get(userId.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+        (mightExist ? positives : negatives).increment();
+        return mightExist;
+    }
+
+    /**
+     * Учитывает положительный ответ фильтра, который не подтвердился при проверке по базе.
+     */
+    public void recordFalsePositive() {
+        if (enabled && ready) {
+            falsePositives.increment();
+        }
+    }
+
+    public void onUserRemoved(Long userId) {
+        afterCommit(() -> {
+            if (!inRange(userId)) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                ids.clear(userId.intValue());
+                removed.set(userId.intValue());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static boolean inRange(Long userId) {
+        return userId > 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    private double falsePositiveRate() {
+        double checked = positives.count();
+        return checked == 0 ? 0 : falsePositives.count() / checked;
+    }
+
+    private int size() {
+        return cardinality(ids);
+    }
+
+    private int removedCount() {
+        return cardinality(removed);
+    }
+
+    private int cardinality(BitSet bits) {
+        lock.readLock().lock();
+        try {
+            return bits.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
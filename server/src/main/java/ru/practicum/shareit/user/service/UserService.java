@@ -1,14 +1,20 @@
 package ru.practicum.shareit.user.service;
 
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public interface UserService {
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(Integer from, Integer size);
+
+    CursorPage<UserDto> getUsersAfter(String cursor, Integer size);
+
+    void forEachUser(Consumer<UserDto> action);
 
     UserDto getUser(Long userId);
 
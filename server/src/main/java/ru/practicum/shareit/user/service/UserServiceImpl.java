@@ -3,18 +3,30 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
+import ru.practicum.shareit.exception.InvalidOperationException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-
-import static ru.practicum.shareit.EntityFinder.findUserOrThrowException;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,19 +34,45 @@ import static ru.practicum.shareit.EntityFinder.findUserOrThrowException;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepo;
+    private final BookingRepository bookingRepo;
+    private final BookingIntervalIndex bookingIndex;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemViewCache itemViewCache;
+    private final EntityFinder entityFinder;
+    private final KnownUserFilter knownUsers;
 
     @Transactional(readOnly = true)
     @Override
-    public List<UserDto> getAllUsers() {
-        List<User> users = userRepo.findAll();
-        log.info("Получен список всех пользователей");
+    public List<UserDto> getAllUsers(Integer from, Integer size) {
+        List<User> users = userRepo.findAll(PageRequest.of(from / size, size, Sort.by("id"))).getContent();
+        log.info("Получен список пользователей");
         return users.stream().map(UserMapper::toUserDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<UserDto> getUsersAfter(String cursor, Integer size) {
+        List<User> users = userRepo.findAllByIdGreaterThan(toUserCursor(cursor), PageRequest.of(0, size + 1, Sort.by("id")));
+        CursorPage<User> page = CursorPage.of(users, size, user -> new Cursor(null, user.getId()));
+        log.info("Получена страница пользователей по курсору");
+        List<UserDto> items = page.getItems().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
+        return new CursorPage<>(items, page.getNextCursor());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachUser(Consumer<UserDto> action) {
+        try (Stream<UserDto> users = userRepo.streamAllOrderById()) {
+            users.forEach(action);
+        }
+        log.info("Выгружен список всех пользователей");
+    }
+
     @Transactional(readOnly = true)
     @Override
     public UserDto getUser(Long userId) {
-        User user = findUserOrThrowException(userRepo, userId);
+        User user = entityFinder.findUserOrThrowException(userId);
         log.info("Получен пользователь ID " + userId);
         return UserMapper.toUserDto(user);
     }
@@ -42,7 +80,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto addUser(UserDto userDto) {
         try {
-            User user = userRepo.save(UserMapper.toUser(userDto));
+            User user = userRepo.saveAndFlush(UserMapper.toUser(userDto));
             log.info("Добавлен новый пользователь ID " + user.getId());
             return UserMapper.toUserDto(user);
         } catch (DataIntegrityViolationException e) {
@@ -52,16 +90,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto updateUser(Long userId, UserDto userDto) {
-        User userFromRepo = findUserOrThrowException(userRepo, userId);
+        User userFromRepo = entityFinder.findUserOrThrowException(userId);
 
         if (userDto.getName() != null) {
             userFromRepo.setName(userDto.getName());
+            itemViewCache.evictAll();
         }
         if (userDto.getEmail() != null) {
             userFromRepo.setEmail(userDto.getEmail());
         }
         try {
-            User user = userRepo.save(userFromRepo);
+            User user = userRepo.saveAndFlush(userFromRepo);
             log.info("Обновлены данные пользователя ID " + userId);
             return UserMapper.toUserDto(user);
         } catch (DataIntegrityViolationException e) {
@@ -71,8 +110,26 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(Long userId) {
-        User user = findUserOrThrowException(userRepo, userId);
+        User user = entityFinder.findUserOrThrowException(userId);
+        List<Integer> bookedItemIds = bookingRepo.findItemIdsByParticipantId(user.getId());
         userRepo.deleteById(user.getId());
+        entityFinder.forgetUser(user.getId());
+        knownUsers.onUserRemoved(user.getId());
+        bookingIndex.evictAll(bookedItemIds);
+        searchEngine.onOwnerRemoved(user.getId());
+        searchCache.onCatalogChanged();
+        itemViewCache.evictAll();
         log.info("Удалён пользователь ID " + user.getId());
     }
-}
\ No newline at end of file
+
+    private static long toUserCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        Cursor cursor = Cursor.decode(token);
+        if (cursor.getPosition() != null) {
+            throw new InvalidOperationException("Некорректный курсор пагинации");
+        }
+        return cursor.getId();
+    }
+}
@@ -0,0 +1,35 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+  ON items USING gin (lower(name) gin_trgm_ops) WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+  ON items USING gin (lower(description) gin_trgm_ops) WHERE available = true;
+
+DO '
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+    ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+      EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+      WHERE (status IN (''WAITING'', ''APPROVED''));
+  END IF;
+EXCEPTION WHEN exclusion_violation THEN
+  RAISE WARNING ''ex_bookings_item_period not created: bookings table already contains overlapping periods'';
+END';
+
+SELECT setval('users_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM users) m
+  WHERE m.max_id >= (SELECT last_value FROM users_seq);
+
+SELECT setval('requests_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM requests) m
+  WHERE m.max_id >= (SELECT last_value FROM requests_seq);
+
+SELECT setval('items_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM items) m
+  WHERE m.max_id >= (SELECT last_value FROM items_seq);
+
+SELECT setval('bookings_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM bookings) m
+  WHERE m.max_id >= (SELECT last_value FROM bookings_seq);
+
+SELECT setval('comments_seq', m.max_id) FROM (SELECT MAX(id) AS max_id FROM comments) m
+  WHERE m.max_id >= (SELECT last_value FROM comments_seq);
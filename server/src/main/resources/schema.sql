@@ -1,3 +1,13 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
@@ -13,6 +23,10 @@ CREATE TABLE IF NOT EXISTS requests (
   FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, creation_date DESC);
+
 CREATE TABLE IF NOT EXISTS items (
   id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
@@ -24,6 +38,10 @@ CREATE TABLE IF NOT EXISTS items (
   FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
 CREATE TABLE IF NOT EXISTS bookings (
   id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   start_date TIMESTAMP NOT NULL,
@@ -35,6 +53,10 @@ CREATE TABLE IF NOT EXISTS bookings (
   FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS comments (
   id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
   text VARCHAR(1000) NOT NULL,
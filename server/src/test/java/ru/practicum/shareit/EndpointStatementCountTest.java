@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.RequestRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.USER_ID;
+
+/**
+ * Число SQL-запросов, которое выполняет каждый эндпоинт. Рост числа означает лишние
+ * обращения к базе: загрузку сущности ради проверки существования или N+1.
+ * Тест не транзакционный, поэтому работает с отдельной базой и не оставляет данных в общей.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:statements"
+})
+@AutoConfigureMockMvc
+@Slf4j
+class EndpointStatementCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        Request request = requestRepository.save(new Request(null, "need a drill", booker, LocalDateTime.now()));
+        item = itemRepository.save(new Item(null, "drill", "cordless drill", true, owner, request));
+        booking = bookingRepository.save(new Booking(null, item, booker,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), Status.WAITING));
+    }
+
+    @Test
+    void endpointsWhenInvokedThenNoRedundantStatements() throws Exception {
+        assertEquals(1, statements(get("/users/{userId}", owner.getId())));
+        assertEquals(5, statements(get("/items").header(USER_ID, owner.getId())));
+        assertEquals(2, statements(get("/items/{itemId}", item.getId()).header(USER_ID, booker.getId())));
+        assertEquals(2, statements(get("/items/{itemId}", item.getId()).header(USER_ID, owner.getId())));
+        assertEquals(0, statements(get("/items/{itemId}", item.getId()).header(USER_ID, owner.getId())));
+        assertEquals(2, statements(get("/items/{itemId}/availability", item.getId())
+                .param("from", LocalDateTime.now().toString())
+                .param("to", LocalDateTime.now().plusDays(7).toString())));
+        assertEquals(3, statements(post("/items").header(USER_ID, owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"saw\", \"description\": \"hand saw\", \"available\": true}")));
+        assertEquals(2, statements(get("/bookings/{bookingId}", booking.getId()).header(USER_ID, booker.getId())));
+        assertEquals(2, statements(get("/bookings").header(USER_ID, booker.getId())));
+        assertEquals(2, statements(patch("/bookings/{bookingId}", booking.getId()).header(USER_ID, owner.getId())
+                .param("approved", "true")));
+        assertEquals(3, statements(get("/requests").header(USER_ID, booker.getId())));
+        assertEquals(3, statements(get("/requests/all").header(USER_ID, owner.getId())));
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().is2xxSuccessful());
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Запросов к базе: {}", statements);
+        return statements;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EtagFilterTest {
+    private final EtagFilter filter = new EtagFilter(List.of("/items/search", "/requests/all", "/users"));
+
+    @Test
+    void doFilterWhenCachedPathThenEtag() {
+        assertNotNull(filter("GET", "/items/search", null).getHeader(HttpHeaders.ETAG));
+        assertNotNull(filter("GET", "/users/1", null).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilterWhenPathNotCachedThenNoEtag() {
+        assertNull(filter("GET", "/items/1", null).getHeader(HttpHeaders.ETAG));
+        assertNull(filter("GET", "/requests", null).getHeader(HttpHeaders.ETAG));
+        assertNull(filter("GET", "/usersearch", null).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilterWhenNotGetOrNdjsonThenNoEtag() {
+        assertNull(filter("POST", "/users", null).getHeader(HttpHeaders.ETAG));
+        assertNull(filter("GET", "/users", MediaType.APPLICATION_NDJSON_VALUE).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilterWhenEtagMatchesThenNotModified() {
+        String etag = filter("GET", "/users", null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        doFilter(request, response);
+
+        assertEquals(304, response.getStatus());
+    }
+
+    private MockHttpServletResponse filter(String method, String uri, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        doFilter(request, response);
+        return response;
+    }
+
+    @SneakyThrows
+    private void doFilter(MockHttpServletRequest request, MockHttpServletResponse response) {
+        FilterChain chain = (req, res) -> res.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, response, chain);
+    }
+}
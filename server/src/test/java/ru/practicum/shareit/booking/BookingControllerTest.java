@@ -8,12 +8,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
 import ru.practicum.shareit.booking.model.BookingServerDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.model.ItemServerDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -23,10 +25,13 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
 import static ru.practicum.shareit.Constants.USER_ID;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -107,6 +112,49 @@ class BookingControllerTest {
         verify(bookingService, times(1)).approveBooking(anyLong(), anyInt(), anyBoolean());
     }
 
+    @SneakyThrows
+    @Test
+    void addBookingsWhenInvokedThenStatusOkAndResultPerEntry() {
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(1, true, bookingServerDto, null),
+                new BookingBatchResultDto(null, false, null, "Вещь не найдена"));
+        when(bookingService.addBookings(eq(2L), any())).thenReturn(results);
+
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID, 2L)
+                        .content(mapper.writeValueAsString(List.of(bookingClientDto, bookingClientDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+
+        verify(bookingService, times(1)).addBookings(eq(2L), any());
+        verify(bookingService, never()).addBooking(anyLong(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookingsWhenInvokedThenStatusOkAndResultPerId() {
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(1, true, bookingServerDto, null),
+                new BookingBatchResultDto(5, false, null, "Бронирование не найдено"));
+        when(bookingService.approveBookings(2L, List.of(1, 5), true)).thenReturn(results);
+
+        mvc.perform(patch("/bookings/approve-batch")
+                        .header(USER_ID, 2L)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1, 5)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+
+        verify(bookingService, times(1)).approveBookings(2L, List.of(1, 5), true);
+        verify(bookingService, never()).approveBooking(anyLong(), anyInt(), anyBoolean());
+    }
+
     @SneakyThrows
     @Test
     void approveBookingWhenNoSuchEntityFoundThenStatusNotFound() {
@@ -220,4 +268,41 @@ class BookingControllerTest {
 
         verify(bookingService, times(1)).getItemBookings(anyLong(), any(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getUserBookingsWhenCursorGivenThenStatusOkAndNextCursorHeader() {
+        when(bookingService.getUserBookingsAfter(anyLong(), any(), eq(""), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingServerDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID, 1L)
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingServerDto))));
+
+        verify(bookingService, times(1)).getUserBookingsAfter(anyLong(), any(), eq(""), anyInt());
+        verify(bookingService, never()).getUserBookings(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemBookingsWhenLastPageByCursorThenStatusOkWithoutNextCursorHeader() {
+        when(bookingService.getItemBookingsAfter(anyLong(), any(), eq("token"), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingServerDto), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID, 1L)
+                        .param("cursor", "token")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingServerDto))));
+
+        verify(bookingService, times(1)).getItemBookingsAfter(anyLong(), any(), eq("token"), anyInt());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение массовой вставки бронирований без пакетной отправки (как при IDENTITY)
+ * и с пакетной отправкой, которую дают последовательности с пулом идентификаторов.
+ * Запускается только с профилем benchmark: {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Tag("benchmark")
+@Slf4j
+class BookingBulkInsertBenchmarkTest {
+    private static final int ROWS = 2000;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    @DirtiesContext
+    void saveAllWhenJdbcBatchingEnabledThenFewerStatementsAndHigherThroughput() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Item item = tx.execute(status -> {
+            User owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+            userRepository.save(new User(null, "booker", "booker@mail.ru"));
+            return itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        });
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        insert(tx, statistics, item, 1, 100);
+        insert(tx, statistics, item, 50, 100);
+        Run unbatched = insert(tx, statistics, item, 1, ROWS);
+        Run batched = insert(tx, statistics, item, 50, ROWS);
+
+        log.info("Вставка {} бронирований без пакетов: {} запросов, {} строк/с",
+                ROWS, unbatched.statements, unbatched.rowsPerSecond());
+        log.info("Вставка {} бронирований пакетами по 50: {} запросов, {} строк/с",
+                ROWS, batched.statements, batched.rowsPerSecond());
+        assertEquals(ROWS + 100 + 100 + ROWS, bookingRepository.count());
+        assertTrue(unbatched.statements >= ROWS);
+        assertTrue(batched.statements * 10 < unbatched.statements);
+    }
+
+    private Run insert(TransactionTemplate tx, Statistics statistics, Item item, int batchSize, int rows) {
+        return tx.execute(status -> {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User booker = userRepository.findAll().get(1);
+            LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+            List<Booking> bookings = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                bookings.add(new Booking(null, item, booker, start.plusHours(i), start.plusHours(i + 1), Status.WAITING));
+            }
+
+            statistics.clear();
+            long startNanos = System.nanoTime();
+            bookingRepository.saveAll(bookings);
+            em.flush();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long statements = statistics.getPrepareStatementCount();
+            em.clear();
+            return new Run(statements, elapsedNanos, rows);
+        });
+    }
+
+    @AllArgsConstructor
+    private static class Run {
+        private final long statements;
+        private final long elapsedNanos;
+        private final int rows;
+
+        long rowsPerSecond() {
+            return rows * 1_000_000_000L / Math.max(elapsedNanos, 1);
+        }
+    }
+}
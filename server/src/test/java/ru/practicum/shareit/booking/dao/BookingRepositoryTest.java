@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingRole;
+import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    private User owner;
+    private User booker;
+
+    private Item item1;
+    private Item item2;
+    private Item item3;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+
+        item1 = itemRepository.save(new Item(null, "item1", "description1", true, owner, null));
+        item2 = itemRepository.save(new Item(null, "item2", "description2", true, owner, null));
+        item3 = itemRepository.save(new Item(null, "item3", "description3", true, owner, null));
+
+        bookingRepository.saveAll(List.of(
+                new Booking(null, item1, booker, now.minusDays(5), now.minusDays(4), Status.APPROVED),
+                new Booking(null, item1, booker, now.minusDays(2), now.minusDays(1), Status.APPROVED),
+                new Booking(null, item1, booker, now.minusHours(1), now.plusHours(1), Status.REJECTED),
+                new Booking(null, item1, booker, now.plusDays(3), now.plusDays(4), Status.WAITING),
+                new Booking(null, item1, booker, now.plusDays(1), now.plusDays(2), Status.APPROVED),
+                new Booking(null, item1, booker, now.plusHours(2), now.plusHours(3), Status.REJECTED),
+                new Booking(null, item2, booker, now.minusDays(1), now.plusDays(1), Status.APPROVED),
+                new Booking(null, item3, booker, now.plusDays(1), now.plusDays(2), Status.REJECTED)
+        ));
+    }
+
+    @Test
+    @DirtiesContext
+    void findLastBookingsByItemIdsWhenInvokedThenLatestStartedNotRejectedBookingPerItem() {
+        Map<Integer, Booking> lastBookings = bookingRepository
+                .findLastBookingsByItemIds(List.of(item1.getId(), item2.getId(), item3.getId()), now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking));
+
+        assertEquals(2, lastBookings.size());
+        assertEquals(now.minusDays(2), lastBookings.get(item1.getId()).getStart());
+        assertEquals(now.minusDays(1), lastBookings.get(item2.getId()).getStart());
+    }
+
+    @Test
+    @DirtiesContext
+    void findNextBookingsByItemIdsWhenInvokedThenEarliestUpcomingNotRejectedBookingPerItem() {
+        Map<Integer, Booking> nextBookings = bookingRepository
+                .findNextBookingsByItemIds(List.of(item1.getId(), item2.getId(), item3.getId()), now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking));
+
+        assertEquals(1, nextBookings.size());
+        assertEquals(now.plusDays(1), nextBookings.get(item1.getId()).getStart());
+        assertEquals(Status.APPROVED, nextBookings.get(item1.getId()).getStatus());
+    }
+
+    @Test
+    @DirtiesContext
+    void findLastAndNextBookingsByItemIdsWhenNoBookingsThenEmptyList() {
+        assertTrue(bookingRepository.findLastBookingsByItemIds(List.of(item3.getId()), now).isEmpty());
+        assertTrue(bookingRepository.findNextBookingsByItemIds(List.of(item3.getId()), now).isEmpty());
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllInPeriodWhenInvokedThenActiveBookingsIntersectingPeriodOrderedByStart() {
+        List<Booking> bookings = bookingRepository.findAllInPeriod(
+                item1.getId(), now.minusDays(2), now.plusDays(3), List.of(Status.WAITING, Status.APPROVED));
+
+        assertEquals(List.of(now.minusDays(2), now.plusDays(1)),
+                bookings.stream().map(Booking::getStart).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByRoleWhenPagingByCursorThenEveryBookingOnceInStartDescOrder() {
+        bookingRepository.save(new Booking(null, item2, booker, now.plusDays(1), now.plusDays(3), Status.WAITING));
+        List<Booking> expected = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getBooker().getId().equals(booker.getId()))
+                .sorted((b1, b2) -> b1.getStart().equals(b2.getStart())
+                        ? b2.getId().compareTo(b1.getId()) : b2.getStart().compareTo(b1.getStart()))
+                .collect(Collectors.toList());
+
+        List<Booking> actual = new ArrayList<>();
+        Cursor cursor = null;
+        do {
+            List<Booking> page = bookingRepository.findAllByRole(
+                    BookingRole.BOOKER, booker.getId(), State.ALL, now, cursor, 0, 2);
+            actual.addAll(page);
+            cursor = page.size() < 2 ? null : new Cursor(page.get(1).getStart(), page.get(1).getId());
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByRoleWhenOwnerAndStateGivenThenOnlyMatchingBookingsAfterCursor() {
+        List<Booking> future = bookingRepository.findAllByRole(
+                BookingRole.OWNER, owner.getId(), State.FUTURE, now, null, 0, 10);
+        assertEquals(4, future.size());
+        assertTrue(future.stream().allMatch(booking -> booking.getStart().isAfter(now)));
+
+        Cursor cursor = new Cursor(future.get(1).getStart(), future.get(1).getId());
+        List<Booking> rest = bookingRepository.findAllByRole(
+                BookingRole.OWNER, owner.getId(), State.FUTURE, now, cursor, 0, 10);
+        assertEquals(future.subList(2, 4), rest);
+
+        List<Booking> rejected = bookingRepository.findAllByRole(
+                BookingRole.OWNER, owner.getId(), State.REJECTED, now, null, 0, 10);
+        assertEquals(3, rejected.size());
+        assertTrue(rejected.stream().allMatch(booking -> booking.getStatus() == Status.REJECTED));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByRoleWhenOffsetGivenThenExactOffsetAndRelationsFetchedInOneStatement() {
+        List<Booking> all = bookingRepository.findAllByRole(
+                BookingRole.OWNER, owner.getId(), State.ALL, now, null, 0, 10);
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        em.flush();
+        em.clear();
+        statistics.clear();
+        List<Booking> page = bookingRepository.findAllByRole(
+                BookingRole.OWNER, owner.getId(), State.ALL, now, null, 3, 2);
+        page.forEach(booking -> {
+            booking.getBooker().getName();
+            booking.getItem().getOwner().getName();
+        });
+
+        assertEquals(8, all.size());
+        assertEquals(List.of(all.get(3).getId(), all.get(4).getId()),
+                page.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
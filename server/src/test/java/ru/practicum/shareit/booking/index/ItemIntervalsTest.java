@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemIntervalsTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final ItemIntervals intervals = new ItemIntervals();
+
+    @Test
+    void overlapsWhenStoredIntervalsOverlapThenLongIntervalIsFound() {
+        // двойное бронирование: короткий период лежит внутри длинного
+        intervals.add(new Interval(1, base, base.plusDays(10)));
+        intervals.add(new Interval(2, base.plusDays(1), base.plusDays(2)));
+
+        assertTrue(intervals.overlaps(base.plusDays(5), base.plusDays(6)));
+        assertFalse(intervals.overlaps(base.plusDays(10), base.plusDays(11)));
+        assertFalse(intervals.overlaps(base.minusDays(2), base));
+    }
+
+    @Test
+    void pruneEndedBeforeWhenIntervalsEndedThenRemoveOnlyThem() {
+        intervals.add(new Interval(1, base, base.plusDays(1)));
+        intervals.add(new Interval(2, base.plusDays(1), base.plusDays(3)));
+        intervals.add(new Interval(3, base.plusDays(4), base.plusDays(5)));
+
+        assertFalse(intervals.pruneEndedBefore(base.plusDays(2)));
+        assertEquals(2, intervals.size());
+        assertTrue(intervals.overlaps(base.plusDays(2), base.plusDays(4)));
+        assertTrue(intervals.pruneEndedBefore(base.plusDays(5)));
+    }
+
+    @Test
+    void maxLengthWhenLongIntervalRemovedOrPrunedThenShrinks() {
+        intervals.add(new Interval(1, base, base.plusDays(30)));
+        intervals.add(new Interval(2, base.plusDays(1), base.plusDays(3)));
+        intervals.add(new Interval(3, base.plusDays(4), base.plusDays(6)));
+        intervals.add(new Interval(4, base.plusDays(40), base.plusDays(41)));
+        assertEquals(Duration.ofDays(30), intervals.maxLength());
+
+        intervals.remove(new Interval(1, base, base.plusDays(30)));
+        assertEquals(Duration.ofDays(2), intervals.maxLength());
+        assertFalse(intervals.overlaps(base.plusDays(10), base.plusDays(11)));
+
+        intervals.pruneEndedBefore(base.plusDays(7));
+        assertEquals(Duration.ofDays(1), intervals.maxLength());
+        assertTrue(intervals.overlaps(base.plusDays(40), base.plusDays(42)));
+    }
+}
@@ -7,8 +7,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
+import ru.practicum.shareit.booking.model.BookingServerDto;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -18,8 +22,11 @@ import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
@@ -40,17 +47,17 @@ class BookingServiceIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
-    private final User user1 = new User(1L, "test user 1", "test@mail.ru");
-    private final User user2 = new User(2L, "test user 2", "test@mail.com");
-    private final User user3 = new User(3L, "test user 3", "test@mail.cn");
+    private final User user1 = new User(null, "test user 1", "test@mail.ru");
+    private final User user2 = new User(null, "test user 2", "test@mail.com");
+    private final User user3 = new User(null, "test user 3", "test@mail.cn");
 
-    private final Item item1 = new Item(1, "test item 1", "test description 1", true, user1, null);
-    private final Item item2 = new Item(2, "test item 2", "test description 2", true, user2, null);
-    private final Item item3 = new Item(3, "test item 3", "test description 3", true, user3, null);
+    private final Item item1 = new Item(null, "test item 1", "test description 1", true, user1, null);
+    private final Item item2 = new Item(null, "test item 2", "test description 2", true, user2, null);
+    private final Item item3 = new Item(null, "test item 3", "test description 3", true, user3, null);
 
-    private final Booking booking1 = new Booking(1, item1, user2,
+    private final Booking booking1 = new Booking(null, item1, user2,
             LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), Status.WAITING);
-    private final Booking booking2 = new Booking(2, item3, user2,
+    private final Booking booking2 = new Booking(null, item3, user2,
             LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), Status.REJECTED);
 
     @BeforeEach
@@ -64,33 +71,95 @@ class BookingServiceIntegrationTest {
     @DirtiesContext
     void addBooking() {
         BookingClientDto bookingClientDto =
-                new BookingClientDto(1, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6));
-        bookingService.addBooking(2L, bookingClientDto);
+                new BookingClientDto(item1.getId(), LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6));
+        BookingServerDto addedBooking = bookingService.addBooking(user2.getId(), bookingClientDto);
 
         Booking actualBooking = em.createQuery("select b from Booking b where b.id = :id", Booking.class)
-                .setParameter("id", 3)
+                .setParameter("id", addedBooking.getId())
                 .getSingleResult();
         assertEquals(bookingClientDto.getItemId(), actualBooking.getItem().getId());
         assertEquals(bookingClientDto.getStart(), actualBooking.getStart());
         assertEquals(bookingClientDto.getEnd(), actualBooking.getEnd());
     }
 
+    @Test
+    @DirtiesContext
+    void addBookingWhenPeriodOverlapsThenConflict() {
+        BookingClientDto overlapping =
+                new BookingClientDto(item1.getId(), booking1.getStart().plusHours(12), booking1.getEnd());
+        BookingClientDto adjacent =
+                new BookingClientDto(item1.getId(), booking1.getEnd(), booking1.getEnd().plusDays(1));
+        BookingClientDto overRejected = new BookingClientDto(item3.getId(), booking2.getStart(), booking2.getEnd());
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(user3.getId(), overlapping));
+        assertNotNull(bookingService.addBooking(user3.getId(), adjacent).getId());
+        assertNotNull(bookingService.addBooking(user1.getId(), overRejected).getId());
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(user2.getId(), adjacent));
+    }
+
+    @Test
+    @DirtiesContext
+    void addBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<BookingBatchResultDto> results = bookingService.addBookings(user3.getId(), List.of(
+                new BookingClientDto(item1.getId(), start, start.plusDays(1)),
+                new BookingClientDto(item2.getId(), start, start.plusDays(1)),
+                new BookingClientDto(item3.getId(), start, start.plusDays(1)),
+                new BookingClientDto(item1.getId(), booking1.getStart(), booking1.getEnd())));
+
+        assertEquals(List.of(true, true, false, false),
+                results.stream().map(BookingBatchResultDto::getSuccess).collect(Collectors.toList()));
+        assertEquals(4L, em.createQuery("select count(b) from Booking b", Long.class).getSingleResult());
+    }
+
     @Test
     @DirtiesContext
     void approveBooking() {
-        bookingService.approveBooking(1L, 1, true);
+        bookingService.approveBooking(user1.getId(), booking1.getId(), true);
 
         Booking actualBooking = em.createQuery("select b from Booking b where b.id = :id", Booking.class)
-                .setParameter("id", 1)
+                .setParameter("id", booking1.getId())
                 .getSingleResult();
         assertEquals(Status.APPROVED, actualBooking.getStatus());
     }
 
+    @Test
+    @DirtiesContext
+    void approveBookingWhenNotOwnerOrAlreadyDecidedThenRowNotUpdated() {
+        Integer bookingId = booking1.getId();
+        assertEquals(0, bookingRepository.updateStatusIfWaiting(bookingId, user2.getId(), Status.APPROVED));
+        assertEquals(1, bookingRepository.updateStatusIfWaiting(bookingId, user1.getId(), Status.REJECTED));
+        assertEquals(0, bookingRepository.updateStatusIfWaiting(bookingId, user1.getId(), Status.APPROVED));
+
+        assertThrows(InvalidOperationException.class,
+                () -> bookingService.approveBooking(user1.getId(), bookingId, true));
+        Booking actualBooking = em.createQuery("select b from Booking b where b.id = :id", Booking.class)
+                .setParameter("id", bookingId)
+                .getSingleResult();
+        assertEquals(Status.REJECTED, actualBooking.getStatus());
+    }
+
+    @Test
+    @DirtiesContext
+    void approveBookings() {
+        Booking booking3 = bookingRepository.save(new Booking(null, item1, user3,
+                LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), Status.WAITING));
+
+        List<BookingBatchResultDto> results = bookingService.approveBookings(
+                user1.getId(), List.of(booking1.getId(), booking2.getId(), booking3.getId()), true);
+
+        assertEquals(List.of(true, false, true),
+                results.stream().map(BookingBatchResultDto::getSuccess).collect(Collectors.toList()));
+        List<Status> statuses = em.createQuery("select b.status from Booking b order by b.id", Status.class)
+                .getResultList();
+        assertEquals(List.of(Status.APPROVED, Status.REJECTED, Status.APPROVED), statuses);
+    }
+
     @Test
     @DirtiesContext
     void getBooking() {
         Booking actualBooking = em.createQuery("select b from Booking b where b.id = :id", Booking.class)
-                .setParameter("id", 2)
+                .setParameter("id", booking2.getId())
                 .getSingleResult();
         assertEquals(item3, actualBooking.getItem());
         assertEquals(user2, actualBooking.getBooker());
@@ -102,7 +171,7 @@ class BookingServiceIntegrationTest {
     void getUserBookings() {
         List<Booking> actualBookings = em
                 .createQuery("select b from Booking b where b.booker.id = :bookerId", Booking.class)
-                .setParameter("bookerId", 2L)
+                .setParameter("bookerId", user2.getId())
                 .getResultList();
         assertEquals(2, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
@@ -116,7 +185,7 @@ class BookingServiceIntegrationTest {
     void getItemBookings() {
         List<Booking> actualBookings = em
                 .createQuery("select b from Booking b where b.item.owner.id = :ownerId", Booking.class)
-                .setParameter("ownerId", 3L)
+                .setParameter("ownerId", user3.getId())
                 .getResultList();
         assertEquals(1, actualBookings.size());
         assertEquals(booking2.getId(), actualBookings.get(0).getId());
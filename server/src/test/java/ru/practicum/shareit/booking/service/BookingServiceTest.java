@@ -1,41 +1,55 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBatchResultDto;
 import ru.practicum.shareit.booking.model.BookingClientDto;
 import ru.practicum.shareit.booking.model.BookingServerDto;
+import ru.practicum.shareit.enums.BookingRole;
 import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.UnauthorizedAccessException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @Transactional
 class BookingServiceTest {
 
-    @InjectMocks
     private BookingServiceImpl bookingService;
 
     @Mock
@@ -47,6 +61,12 @@ class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private BookingIntervalIndex bookingIndex;
+
     private final User user1 = new User(1L, "user1", "test@mail.ru");
     private final User user2 = new User(2L, "user2", "test@mail.com");
 
@@ -56,13 +76,20 @@ class BookingServiceTest {
     private final Booking booking1 = new Booking(
             1, item2, user1, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), Status.WAITING);
 
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, bookingIndex, itemViewCache,
+                new EntityFinder(userRepository, itemRepository, bookingRepository, mock(RequestRepository.class),
+                        new KnownUserFilter(userRepository, new SimpleMeterRegistry(), false)));
+    }
+
     @Test
     void addBookingWhenUserAndItemExistAndValidParamsThenPersistBookingAndReturnBookingDto() {
         BookingClientDto bookingDto =
                 new BookingClientDto(2, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(itemRepository.findById(2)).thenReturn(Optional.of(item2));
-        when(bookingRepository.save(any()))
+        when(itemRepository.findByIdForUpdate(2)).thenReturn(Optional.of(item2));
+        when(bookingRepository.saveAndFlush(any()))
                 .thenReturn(
                         new Booking(1, item2, user1, LocalDateTime.now().plusDays(1),
                                 LocalDateTime.now().plusDays(2), Status.WAITING));
@@ -88,13 +115,13 @@ class BookingServiceTest {
 
         //case: missing item
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(itemRepository.findById(2)).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(2)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception2 = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.addBooking(1L, bookingDto));
         assertEquals("Вещь не найдена", exception2.getMessage());
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -102,7 +129,7 @@ class BookingServiceTest {
         BookingClientDto bookingDto =
                 new BookingClientDto(2, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(itemRepository.findById(2)).thenReturn(Optional.of(item2));
+        when(itemRepository.findByIdForUpdate(2)).thenReturn(Optional.of(item2));
 
         UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class,
                 () -> bookingService.addBooking(2L, bookingDto));
@@ -114,39 +141,118 @@ class BookingServiceTest {
         BookingClientDto bookingDto =
                 new BookingClientDto(1, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
         when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
+        when(itemRepository.findByIdForUpdate(1)).thenReturn(Optional.of(item1));
 
         ItemNotAvailableException exception = assertThrows(ItemNotAvailableException.class,
                 () -> bookingService.addBooking(2L, bookingDto));
         assertEquals("Вещь недоступна для бронирования", exception.getMessage());
     }
 
+    @Test
+    void addBookingWhenPeriodOverlapsThenException() {
+        BookingClientDto bookingDto =
+                new BookingClientDto(2, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(itemRepository.findByIdForUpdate(2)).thenReturn(Optional.of(item2));
+        when(bookingIndex.hasConflict(2, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+        when(bookingRepository.existsOverlapping(eq(2), eq(bookingDto.getStart()), eq(bookingDto.getEnd()), any()))
+                .thenReturn(true);
+
+        BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.addBooking(1L, bookingDto));
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(bookingIndex, never()).add(any());
+    }
+
+    @Test
+    void addBookingWhenIndexIsStaleThenEvictItemAndPersistBooking() {
+        BookingClientDto bookingDto =
+                new BookingClientDto(2, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(itemRepository.findByIdForUpdate(2)).thenReturn(Optional.of(item2));
+        when(bookingIndex.hasConflict(2, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+        when(bookingRepository.existsOverlapping(eq(2), eq(bookingDto.getStart()), eq(bookingDto.getEnd()), any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking1);
+
+        BookingServerDto actualBooking = bookingService.addBooking(1L, bookingDto);
+
+        assertEquals(booking1.getId(), actualBooking.getId());
+        verify(bookingIndex).evict(2);
+        verify(bookingIndex).add(booking1);
+    }
+
+    @Test
+    void addBookingsWhenMixedEntriesThenOneLookupPerEntityAndResultPerEntry() {
+        Item item3 = new Item(3, "item3", "description3", true, user2, null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingClientDto> bookingDtos = List.of(
+                new BookingClientDto(2, start, start.plusDays(1)),
+                new BookingClientDto(1, start, start.plusDays(1)),
+                new BookingClientDto(2, start.plusHours(12), start.plusDays(2)),
+                new BookingClientDto(7, start, start.plusDays(1)),
+                new BookingClientDto(3, start, start.plusDays(1)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(itemRepository.findAllForUpdateByIdIn(Set.of(1, 2, 3, 7))).thenReturn(List.of(item1, item2, item3));
+        when(bookingRepository.saveAll(any())).thenAnswer(invocation -> {
+            int id = 10;
+            for (Booking booking : invocation.<Iterable<Booking>>getArgument(0)) {
+                booking.setId(id++);
+            }
+            return null;
+        });
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(1L, bookingDtos);
+
+        assertEquals(List.of(true, false, false, false, true),
+                results.stream().map(BookingBatchResultDto::getSuccess).collect(Collectors.toList()));
+        assertEquals(10, results.get(0).getBookingId());
+        assertEquals("Владелец вещи не может забронировать собственную вещь", results.get(1).getError());
+        assertEquals("Вещь уже забронирована на указанный период", results.get(2).getError());
+        assertEquals("Вещь не найдена", results.get(3).getError());
+        assertEquals(11, results.get(4).getBooking().getId());
+        verify(userRepository, times(1)).findById(1L);
+        verify(itemRepository, never()).findByIdForUpdate(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(bookingIndex, times(2)).add(any());
+    }
+
     @Test
     void approveBookingWhenApprovedThenUpdateBookingAndReturnBookingDto() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(any())).thenReturn(booking1);
+        Booking approved = new Booking(
+                1, item2, user1, booking1.getStart(), booking1.getEnd(), Status.APPROVED);
+        when(bookingRepository.updateStatusIfWaiting(1, 2L, Status.APPROVED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(approved));
 
         BookingServerDto actualBooking = bookingService.approveBooking(2L, 1, true);
         assertEquals(Status.APPROVED, actualBooking.getStatus());
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIndex, never()).remove(any());
+        verify(userRepository, never()).existsById(anyLong());
     }
 
     @Test
     void approveBookingWhenRejectedThenUpdateBookingAndReturnBookingDto() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(any())).thenReturn(booking1);
+        Booking rejected = new Booking(
+                1, item2, user1, booking1.getStart(), booking1.getEnd(), Status.REJECTED);
+        when(bookingRepository.updateStatusIfWaiting(1, 2L, Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(rejected));
 
         BookingServerDto actualBooking = bookingService.approveBooking(2L, 1, false);
         assertEquals(Status.REJECTED, actualBooking.getStatus());
+        verify(bookingIndex).remove(rejected);
+        verify(userRepository, never()).existsById(anyLong());
     }
 
     @Test
     void approveBookingWhenApprovingOrRejectingAlreadyApprovedBookingThenException() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(any())).thenReturn(booking1);
-        bookingService.approveBooking(2L, 1, true);
+        Booking approved = new Booking(
+                1, item2, user1, booking1.getStart(), booking1.getEnd(), Status.APPROVED);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(eq(1), eq(2L), any())).thenReturn(0);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(approved));
 
         // case: approved to approved
         InvalidOperationException exception = assertThrows(InvalidOperationException.class,
@@ -156,15 +262,16 @@ class BookingServiceTest {
         exception = assertThrows(InvalidOperationException.class, () -> bookingService.approveBooking(2L, 1, false));
         assertEquals("Нельзя изменить статус бронирования повторно", exception.getMessage());
 
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, never()).findWithItemAndBookerById(any());
     }
 
     @Test
     void approveBookingWhenApprovingOrRejectingAlreadyRejectedBookingThenException() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(any())).thenReturn(booking1);
-        bookingService.approveBooking(2L, 1, false);
+        Booking rejected = new Booking(
+                1, item2, user1, booking1.getStart(), booking1.getEnd(), Status.REJECTED);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(eq(1), eq(2L), any())).thenReturn(0);
+        when(bookingRepository.findById(1)).thenReturn(Optional.of(rejected));
 
         // case: rejected to approved
         InvalidOperationException exception = assertThrows(InvalidOperationException.class,
@@ -174,25 +281,80 @@ class BookingServiceTest {
         exception = assertThrows(InvalidOperationException.class, () -> bookingService.approveBooking(2L, 1, false));
         assertEquals("Нельзя изменить статус бронирования повторно", exception.getMessage());
 
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingIndex, never()).remove(any());
     }
 
     @Test
     void approveBookingWhenApprovingOrRejectingByOwnerThenException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(1, 1L, Status.APPROVED)).thenReturn(0);
         when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
 
         UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class,
                 () -> bookingService.approveBooking(1L, 1, true));
         assertEquals("Бронирование может подтвердить или отклонить только владелец вещи", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingWhenBookingNotFoundThenException() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(1, 2L, Status.APPROVED)).thenReturn(0);
+        when(bookingRepository.findById(1)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.approveBooking(2L, 1, true));
+        assertEquals("Бронирование не найдено", exception.getMessage());
+    }
+
+    @Test
+    void approveBookingWhenOwnerNotFoundThenException() {
+        when(bookingRepository.updateStatusIfWaiting(1, 5L, Status.APPROVED)).thenReturn(0);
+        when(userRepository.existsById(5L)).thenReturn(false);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.approveBooking(5L, 1, true));
+        assertEquals("Пользователь не найден", exception.getMessage());
+        verify(bookingRepository, never()).findById(any());
+    }
+
+    @Test
+    void approveBookingsWhenMixedIdsThenSingleUpdateAndResultPerId() {
+        Booking decided = new Booking(
+                3, item2, user1, booking1.getStart(), booking1.getEnd(), Status.APPROVED);
+        Booking foreign = new Booking(
+                4, item1, user2, booking1.getStart(), booking1.getEnd(), Status.WAITING);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(1, 3, 4, 5, 1)))
+                .thenReturn(List.of(booking1, decided, foreign));
+        when(bookingRepository.updateStatusIfWaiting(List.of(1), 2L, Status.REJECTED)).thenReturn(1);
+
+        List<BookingBatchResultDto> results = bookingService.approveBookings(2L, List.of(1, 3, 4, 5, 1), false);
+
+        assertEquals(4, results.size());
+        assertEquals(Status.REJECTED, results.get(0).getBooking().getStatus());
+        assertEquals("Нельзя изменить статус бронирования повторно", results.get(1).getError());
+        assertEquals("Бронирование может подтвердить или отклонить только владелец вещи", results.get(2).getError());
+        assertEquals("Бронирование не найдено", results.get(3).getError());
+        assertEquals(List.of(true, false, false, false),
+                results.stream().map(BookingBatchResultDto::getSuccess).collect(Collectors.toList()));
+        verify(bookingIndex).remove(booking1);
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void approveBookingsWhenRowChangedConcurrentlyThenException() {
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(1))).thenReturn(List.of(booking1));
+        when(bookingRepository.updateStatusIfWaiting(List.of(1), 2L, Status.APPROVED)).thenReturn(0);
+
+        InvalidOperationException exception = assertThrows(InvalidOperationException.class,
+                () -> bookingService.approveBookings(2L, List.of(1), true));
+        assertEquals("Статус части бронирований был изменён параллельно, повторите запрос", exception.getMessage());
+    }
+
     @Test
     void getBookingWhenUserIsOwnerOrBookerWhenBookingDto() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking1));
 
         BookingServerDto actualBookingByBooker = bookingService.getBooking(1L, 1);
         assertEquals(booking1.getStart(), actualBookingByBooker.getStart());
@@ -212,8 +374,8 @@ class BookingServiceTest {
     @Test
     void getBookingWhenUserIsNotOwnerOrBookerThenException() {
         User user3 = new User(3L, "user3", "test@mail.cn");
-        when(userRepository.findById(3L)).thenReturn(Optional.of(user3));
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking1));
+        when(userRepository.existsById(3L)).thenReturn(true);
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking1));
 
         UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class,
                 () -> bookingService.getBooking(3L, 1));
@@ -224,15 +386,15 @@ class BookingServiceTest {
     @Test
     void getBookingWhenEntityNotFoundThenException() {
         // case: missing user
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         EntityNotFoundException exception1 = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBooking(1L, 1));
         assertEquals("Пользователь не найден", exception1.getMessage());
 
         // case: missing booking
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(bookingRepository.findById(1)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception2 = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBooking(1L, 1));
@@ -247,45 +409,45 @@ class BookingServiceTest {
                 3, item1, user2, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), Status.REJECTED);
         Booking booking4 = new Booking(
                 4, item1, user2, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), Status.WAITING);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
 
         // case: ALL
         when(bookingRepository
-                .findAllByBookerId(anyLong(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.ALL), any(), isNull(), eq(0), eq(1)))
                 .thenReturn(List.of(booking4, booking2, booking3));
         List<BookingServerDto> actualBookings1 = bookingService.getUserBookings(2L, State.ALL, 0, 1);
         assertEquals(3, actualBookings1.size());
         // case: CURRENT
         when(bookingRepository
-                .findAllByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.CURRENT), any(), isNull(), eq(0), eq(1)))
                 .thenReturn(List.of(booking3));
         List<BookingServerDto> actualBookings2 = bookingService.getUserBookings(2L, State.CURRENT, 0, 1);
         assertEquals(1, actualBookings2.size());
         assertEquals(booking3.getId(), actualBookings2.get(0).getId());
-        // case: PAST
+        // case: PAST with offset not divisible by size
         when(bookingRepository
-                .findAllByBookerIdAndEndBefore(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.PAST), any(), isNull(), eq(3), eq(2)))
                 .thenReturn(List.of(booking2));
-        List<BookingServerDto> actualBookings3 = bookingService.getUserBookings(2L, State.PAST, 0, 1);
+        List<BookingServerDto> actualBookings3 = bookingService.getUserBookings(2L, State.PAST, 3, 2);
         assertEquals(1, actualBookings3.size());
         assertEquals(booking2.getId(), actualBookings3.get(0).getId());
         // case: FUTURE
         when(bookingRepository
-                .findAllByBookerIdAndStartAfter(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.FUTURE), any(), isNull(), eq(0), eq(1)))
                 .thenReturn(List.of(booking4));
         List<BookingServerDto> actualBookings4 = bookingService.getUserBookings(2L, State.FUTURE, 0, 1);
         assertEquals(1, actualBookings4.size());
         assertEquals(booking4.getId(), actualBookings4.get(0).getId());
         // case: WAITING
         when(bookingRepository
-                .findAllByBookerIdAndStatus(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.WAITING), any(), isNull(), eq(0), eq(1)))
                 .thenReturn(List.of(booking4));
         List<BookingServerDto> actualBookings5 = bookingService.getUserBookings(2L, State.WAITING, 0, 1);
         assertEquals(1, actualBookings5.size());
         assertEquals(booking4.getId(), actualBookings5.get(0).getId());
         // case: REJECTED
         when(bookingRepository
-                .findAllByBookerIdAndStatus(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.BOOKER), eq(2L), eq(State.REJECTED), any(), isNull(), eq(0), eq(1)))
                 .thenReturn(List.of(booking3));
         List<BookingServerDto> actualBookings6 = bookingService.getUserBookings(2L, State.REJECTED, 0, 1);
         assertEquals(1, actualBookings6.size());
@@ -294,7 +456,7 @@ class BookingServiceTest {
 
     @Test
     void getUserBookingsWhenUserNotFoundThenException() {
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(3L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getUserBookings(3L, State.ALL, 0, 1));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -308,56 +470,108 @@ class BookingServiceTest {
                 3, item1, user2, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), Status.REJECTED);
         Booking booking4 = new Booking(
                 4, item1, user2, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), Status.WAITING);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         // case: ALL
         when(bookingRepository
-                .findAllByItemOwnerId(anyLong(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.ALL), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking4, booking2, booking3));
-        List<BookingServerDto> actualBookings1 = bookingService.getItemBookings(1L, State.ALL, 0, 1);
+        List<BookingServerDto> actualBookings1 = bookingService.getItemBookings(1L, State.ALL, 0, 10);
         assertEquals(3, actualBookings1.size());
         // case: CURRENT
         when(bookingRepository
-                .findAllByItemOwnerIdAndStartBeforeAndEndAfter(anyLong(), any(), any(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.CURRENT), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking3));
-        List<BookingServerDto> actualBookings2 = bookingService.getItemBookings(1L, State.CURRENT, 0, 1);
+        List<BookingServerDto> actualBookings2 = bookingService.getItemBookings(1L, State.CURRENT, 0, 10);
         assertEquals(1, actualBookings2.size());
         assertEquals(booking3.getId(), actualBookings2.get(0).getId());
         // case: PAST
         when(bookingRepository
-                .findAllByItemOwnerIdAndEndBefore(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.PAST), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking2));
-        List<BookingServerDto> actualBookings3 = bookingService.getItemBookings(1L, State.PAST, 0, 1);
+        List<BookingServerDto> actualBookings3 = bookingService.getItemBookings(1L, State.PAST, 0, 10);
         assertEquals(1, actualBookings3.size());
         assertEquals(booking2.getId(), actualBookings3.get(0).getId());
         // case: FUTURE
         when(bookingRepository
-                .findAllByItemOwnerIdAndStartAfter(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.FUTURE), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking4));
-        List<BookingServerDto> actualBookings4 = bookingService.getItemBookings(1L, State.FUTURE, 0, 1);
+        List<BookingServerDto> actualBookings4 = bookingService.getItemBookings(1L, State.FUTURE, 0, 10);
         assertEquals(1, actualBookings4.size());
         assertEquals(booking4.getId(), actualBookings4.get(0).getId());
         // case: WAITING
         when(bookingRepository
-                .findAllByItemOwnerIdAndStatus(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.WAITING), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking4));
-        List<BookingServerDto> actualBookings5 = bookingService.getItemBookings(1L, State.WAITING, 0, 1);
+        List<BookingServerDto> actualBookings5 = bookingService.getItemBookings(1L, State.WAITING, 0, 10);
         assertEquals(1, actualBookings5.size());
         assertEquals(booking4.getId(), actualBookings5.get(0).getId());
         // case: REJECTED
         when(bookingRepository
-                .findAllByItemOwnerIdAndStatus(anyLong(), any(), any()))
+                .findAllByRole(eq(BookingRole.OWNER), eq(1L), eq(State.REJECTED), any(), isNull(), eq(0), eq(10)))
                 .thenReturn(List.of(booking3));
-        List<BookingServerDto> actualBookings6 = bookingService.getItemBookings(1L, State.REJECTED, 0, 1);
+        List<BookingServerDto> actualBookings6 = bookingService.getItemBookings(1L, State.REJECTED, 0, 10);
         assertEquals(1, actualBookings6.size());
         assertEquals(booking3.getId(), actualBookings6.get(0).getId());
     }
 
     @Test
     void getItemBookingsWhenUserNotFoundThenException() {
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(3L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getItemBookings(3L, State.ALL, 0, 1));
         assertEquals("Пользователь не найден", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookingsAfterWhenMoreRowsThanPageSizeThenPageWithNextCursor() {
+        Booking booking2 = new Booking(
+                2, item2, user1, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), Status.WAITING);
+        Booking booking3 = new Booking(
+                3, item2, user1, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), Status.WAITING);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllByRole(
+                eq(BookingRole.BOOKER), eq(1L), eq(State.ALL), any(), isNull(), eq(0), eq(3)))
+                .thenReturn(List.of(booking3, booking2, booking1));
+
+        CursorPage<BookingServerDto> page = bookingService.getUserBookingsAfter(1L, State.ALL, "", 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(booking3.getId(), page.getItems().get(0).getId());
+        assertEquals(booking2.getId(), page.getItems().get(1).getId());
+        assertEquals(new Cursor(booking2.getStart(), booking2.getId()), Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getItemBookingsAfterWhenLastPageThenPageWithoutNextCursor() {
+        Cursor cursor = new Cursor(LocalDateTime.now().plusDays(5), 3);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findAllByRole(
+                eq(BookingRole.OWNER), eq(2L), eq(State.FUTURE), any(), eq(cursor), eq(0), eq(3)))
+                .thenReturn(List.of(booking1));
+
+        CursorPage<BookingServerDto> page = bookingService.getItemBookingsAfter(2L, State.FUTURE, cursor.encode(), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(booking1.getId(), page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUserBookingsAfterWhenMalformedCursorThenException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        InvalidOperationException exception1 = assertThrows(InvalidOperationException.class,
+                () -> bookingService.getUserBookingsAfter(1L, State.ALL, "not a cursor", 2));
+        assertEquals("Некорректный курсор пагинации", exception1.getMessage());
+
+        InvalidOperationException exception2 = assertThrows(InvalidOperationException.class,
+                () -> bookingService.getUserBookingsAfter(1L, State.ALL, new Cursor(null, 1).encode(), 2));
+        assertEquals("Некорректный курсор пагинации", exception2.getMessage());
+
+        InvalidOperationException exception3 = assertThrows(InvalidOperationException.class,
+                () -> bookingService.getUserBookingsAfter(1L, State.ALL,
+                        new Cursor(LocalDateTime.now(), Integer.MAX_VALUE + 1L).encode(), 2));
+        assertEquals("Некорректный курсор пагинации", exception3.getMessage());
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.comment.model.CommentServerDto;
+import ru.practicum.shareit.item.model.AvailabilitySlotDto;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -110,7 +111,7 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void getItemsBySearchWhenInvokedThenStatusOkAndItemDtoList() {
-        when(itemService.getItemsBySearch(anyString(), anyInt(), anyInt())).thenReturn(List.of(itemServerDto));
+        when(itemService.getItemsBySearch(anyString(), anyInt(), anyInt(), anyBoolean())).thenReturn(List.of(itemServerDto));
 
         mvc.perform(get("/items/search")
                     .param("text", "search")
@@ -120,7 +121,7 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemServerDto))));
 
-        verify(itemService, times(1)).getItemsBySearch(anyString(), anyInt(), anyInt());
+        verify(itemService, times(1)).getItemsBySearch(anyString(), anyInt(), anyInt(), anyBoolean());
     }
 
     @SneakyThrows
@@ -221,4 +222,22 @@ class ItemControllerTest {
 
         verify(itemService, times(1)).addComment(anyLong(), anyInt(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getItemAvailabilityWhenInvokedThenStatusOkAndSlotList() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        List<AvailabilitySlotDto> slots = List.of(new AvailabilitySlotDto(from, to));
+        when(itemService.getItemAvailability(1, from, to)).thenReturn(slots);
+
+        mvc.perform(get("/items/{itemId}/availability", 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(slots)));
+
+        verify(itemService, times(1)).getItemAvailability(1, from, to);
+    }
+}
@@ -7,10 +7,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RequestItemView;
+import ru.practicum.shareit.request.dao.RequestRepository;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -23,6 +28,9 @@ class ItemRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RequestRepository requestRepository;
+
     @BeforeEach
     void setUp() {
         User user = new User(1L, "user", "mail@mail.ru");
@@ -50,4 +58,71 @@ class ItemRepositoryTest {
         List<Item> actualItems = itemRepository.search("mIsMATch", PageRequest.ofSize(3));
         assertEquals(0, actualItems.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void testSearchWhenTextContainsLikeWildcardsThenMatchedLiterally() {
+        User user = userRepository.findById(1L).get();
+        itemRepository.saveAll(List.of(
+                new Item(null, "Дрель 100%", "ударная", true, user, null),
+                new Item(null, "Дрель 1000", "без_удара", true, user, null)));
+
+        assertEquals(List.of("Дрель 100%"), itemRepository.search("0%", PageRequest.ofSize(3)).stream()
+                .map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of("Дрель 1000"), itemRepository.search("Без_", PageRequest.ofSize(3)).stream()
+                .map(Item::getName).collect(Collectors.toList()));
+        assertEquals(2, itemRepository.search("ДРЕЛЬ", PageRequest.ofSize(3)).size());
+    }
+
+    @Test
+    @DirtiesContext
+    void searchRankedWhenTermsInDifferentFieldsThenMatchedPerTermAndNameMatchesFirst() {
+        User user = userRepository.findById(1L).get();
+        itemRepository.saveAll(List.of(
+                new Item(null, "Дрель", "Ударная, мощная", true, user, null),
+                new Item(null, "Ударная дрель", "Мощная", true, user, null),
+                new Item(null, "Перфоратор", "Не дрель", true, user, null)));
+
+        assertEquals(List.of("Ударная дрель", "Дрель"), itemRepository.searchRanked(List.of("дрель", "ударн"), 0, 10)
+                .stream().map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of("Дрель"), itemRepository.searchRanked(List.of("дрель", "ударн"), 1, 10)
+                .stream().map(Item::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext
+    void searchRankedWhenTermsContainLikeWildcardsThenMatchedLiterally() {
+        User user = userRepository.findById(1L).get();
+        itemRepository.saveAll(List.of(
+                new Item(null, "Дрель 100%", "ударная", true, user, null),
+                new Item(null, "Дрель 1000", "без_удара", true, user, null)));
+
+        assertEquals(List.of("Дрель 100%"), itemRepository.searchRanked(List.of("0%"), 0, 10).stream()
+                .map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of("Дрель 1000"), itemRepository.searchRanked(List.of("без_"), 0, 10).stream()
+                .map(Item::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByRequestIdInWhenInvokedThenItemProjectionsOfGivenRequests() {
+        User user = userRepository.findById(1L).get();
+        Request request1 = requestRepository.save(new Request(null, "request 1", user, LocalDateTime.now()));
+        Request request2 = requestRepository.save(new Request(null, "request 2", user, LocalDateTime.now()));
+        Request request3 = requestRepository.save(new Request(null, "request 3", user, LocalDateTime.now()));
+        Item item1 = itemRepository.save(new Item(null, "drill", "for request 1", true, user, request1));
+        Item item2 = itemRepository.save(new Item(null, "saw", "for request 2", false, user, request2));
+        Item item3 = itemRepository.save(new Item(null, "axe", "for request 1", true, user, request1));
+        itemRepository.save(new Item(null, "hammer", "for request 3", true, user, request3));
+
+        List<RequestItemView> actualItems = itemRepository.findAllByRequestIdIn(List.of(request1.getId(), request2.getId()));
+
+        assertEquals(List.of(item1.getId(), item2.getId(), item3.getId()), actualItems.stream()
+                .map(RequestItemView::getId).collect(Collectors.toList()));
+        assertEquals(List.of(request1.getId(), request2.getId(), request1.getId()), actualItems.stream()
+                .map(RequestItemView::getRequestId).collect(Collectors.toList()));
+        assertEquals("saw", actualItems.get(1).getName());
+        assertEquals("for request 2", actualItems.get(1).getDescription());
+        assertEquals(false, actualItems.get(1).getAvailable());
+    }
+}
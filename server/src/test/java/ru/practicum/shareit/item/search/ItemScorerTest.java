@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemScorerTest {
+
+    @Test
+    void distanceWhenWithinLimitThenExactDistance() {
+        assertEquals(0, Levenshtein.distance("дрель", "дрель", 2));
+        assertEquals(1, Levenshtein.distance("дрель", "дрэль", 2));
+        assertEquals(1, Levenshtein.distance("дрель", "дрел", 2));
+        assertEquals(2, Levenshtein.distance("перфоратор", "перфаротор", 2));
+        assertEquals(2, Levenshtein.distance("abc", "bca", 2));
+    }
+
+    @Test
+    void distanceWhenAboveLimitThenLimitPlusOne() {
+        assertEquals(2, Levenshtein.distance("дрель", "пила", 1));
+        assertEquals(2, Levenshtein.distance("abc", "abcdef", 1));
+        assertEquals(3, Levenshtein.distance("kitten", "sitting", 2));
+        assertEquals(3, Levenshtein.distance("kitten", "sitting", 3));
+    }
+
+    @Test
+    void scoreWhenMatchKindsDifferThenExactAbovePrefixAboveSubstringAboveTypo() {
+        List<String> terms = List.of("дрель");
+        double exact = ItemScorer.score(new ItemDocument(1, 1L, "дрель", "", true, null), terms);
+        double prefix = ItemScorer.score(new ItemDocument(2, 1L, "дрелька", "", true, null), terms);
+        double substring = ItemScorer.score(new ItemDocument(3, 1L, "гипердрель", "", true, null), terms);
+        double typo = ItemScorer.score(new ItemDocument(4, 1L, "дрэль", "", true, null), terms);
+
+        assertTrue(exact > prefix);
+        assertTrue(prefix > substring);
+        assertTrue(substring > typo);
+        assertTrue(typo > 0);
+    }
+
+    @Test
+    void scoreWhenTermRepeatedThenHigher() {
+        List<String> terms = List.of("дрель");
+        double once = ItemScorer.score(new ItemDocument(1, 1L, "Отвёртка", "дрель", true, null), terms);
+        double twice = ItemScorer.score(new ItemDocument(2, 1L, "Отвёртка", "дрель и ещё дрель", true, null), terms);
+
+        assertTrue(twice > once);
+    }
+
+    @Test
+    void scoreWhenAnyTermMissingThenZero() {
+        ItemDocument document = new ItemDocument(1, 1L, "Дрель", "Аккумуляторная", true, null);
+
+        assertEquals(0.0, ItemScorer.score(document, List.of("дрель", "пила")));
+        assertEquals(0.0, ItemScorer.score(document, List.of("дрл")));
+    }
+}
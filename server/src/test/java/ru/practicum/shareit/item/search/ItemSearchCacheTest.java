@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemServerDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchCacheTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final Item item1 = new Item(1, "Дрель", "Аккумуляторная", true, owner, null);
+    private final Item item2 = new Item(2, "Дрель ударная", "Сетевая", true, owner, null);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<ItemServerDto>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(ItemMapper.toItemServerDto(item2), ItemMapper.toItemServerDto(item1));
+    };
+
+    private ItemSearchCache searchCache;
+
+    @BeforeEach
+    void setUp() {
+        searchCache = new ItemSearchCache(itemRepository, meterRegistry, 1000);
+    }
+
+    @Test
+    void searchWhenSameQueryInAnotherCaseThenLoadedByIdsInCachedOrder() {
+        when(itemRepository.findAllById(List.of(2, 1))).thenReturn(List.of(item1, item2));
+
+        searchCache.search("Дрель", 0, 10, false, loader);
+        List<ItemServerDto> cached = searchCache.search("дРЕЛЬ", 0, 10, false, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(2, cached.get(0).getId());
+        assertEquals(1, cached.get(1).getId());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void searchWhenPageOrModeDiffersThenLoadedAgain() {
+        searchCache.search("дрель", 0, 10, false, loader);
+        searchCache.search("дрель", 10, 10, false, loader);
+        searchCache.search("дрель", 0, 10, true, loader);
+
+        assertEquals(3, loads.get());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchWhenCatalogChangedThenLoadedAgain() {
+        searchCache.search("дрель", 0, 10, false, loader);
+        searchCache.onCatalogChanged();
+        searchCache.search("дрель", 0, 10, false, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("item.search.generation").gauge().value());
+    }
+}
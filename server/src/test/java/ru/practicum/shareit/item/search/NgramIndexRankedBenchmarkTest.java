@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Задержка ранжированного поиска на синтетическом каталоге: не более 200 мс на каждые
+ * 100 000 вещей для лучшего из нескольких прогонов, чтобы не учитывать паузы сборщика мусора.
+ * Размер каталога задаётся свойством search.benchmark.items, например
+ * -Dsearch.benchmark.items=1000000.
+ * Запускается только с профилем benchmark: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+class NgramIndexRankedBenchmarkTest {
+    private static final int ITEMS = Integer.getInteger("search.benchmark.items", 100_000);
+    private static final long BUDGET_MILLIS_PER_100K = 200;
+    private static final int RUNS = 5;
+    private static final List<String> NOUNS = List.of(
+            "дрель", "перфоратор", "пила", "отвёртка", "молоток", "лестница", "палатка", "велосипед",
+            "самокат", "проектор", "фотоаппарат", "гитара", "сноуборд", "мангал", "удочка", "рюкзак");
+    private static final List<String> ADJECTIVES = List.of(
+            "аккумуляторная", "ударная", "складная", "туристическая", "детская", "профессиональная",
+            "электрическая", "лёгкая", "большая", "компактная", "новая", "старая");
+
+    @Test
+    void searchRankedWhenLargeCatalogThenWithinLatencyBudget() {
+        Random random = new Random(42);
+        List<ItemDocument> documents = new ArrayList<>(ITEMS);
+        for (int id = 1; id <= ITEMS; id++) {
+            String name = pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + id;
+            String description = pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " в аренду";
+            documents.add(new ItemDocument(id, (long) random.nextInt(1000), name, description, random.nextBoolean(), null));
+        }
+        NgramIndex index = new NgramIndex();
+        index.rebuild(documents);
+
+        List<List<String>> queries = List.of(
+                List.of("дрель"), List.of("дрэль"), List.of("перфаратор"), List.of("туристическая", "палатка"),
+                List.of("гитар"), List.of("складная", "лестница"));
+        queries.forEach(query -> index.searchRanked(query, 0, 10));
+
+        long worstMillis = 0;
+        for (List<String> query : queries) {
+            long elapsedMillis = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long startNanos = System.nanoTime();
+                List<ItemDocument> found = index.searchRanked(query, 0, 10);
+                elapsedMillis = Math.min(elapsedMillis, (System.nanoTime() - startNanos) / 1_000_000);
+                assertFalse(found.isEmpty());
+            }
+            log.info("Ранжированный поиск {} по {} вещам: {} мс", query, ITEMS, elapsedMillis);
+            worstMillis = Math.max(worstMillis, elapsedMillis);
+        }
+        assertTrue(worstMillis < BUDGET_MILLIS_PER_100K * Math.max(1, ITEMS / 100_000));
+    }
+
+    private static String pick(Random random, List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
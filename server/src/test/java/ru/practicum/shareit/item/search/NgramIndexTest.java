@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NgramIndexTest {
+
+    private final NgramIndex index = new NgramIndex();
+
+    @Test
+    void searchWhenQueryMatchesNameOrDescriptionThenAvailableItemsOrderedById() {
+        index.rebuild(List.of(
+                new ItemDocument(3, 1L, "Дрель", "Аккумуляторная дрель", true, null),
+                new ItemDocument(1, 1L, "Отвёртка", "Подходит к дрели", true, null),
+                new ItemDocument(2, 2L, "Дрель ударная", "Мощная", false, null),
+                new ItemDocument(4, 2L, "Пила", "Ручная", true, null)));
+
+        assertEquals(List.of(1, 3), ids(index.search("дрел", 0, 10)));
+        assertEquals(List.of(3), ids(index.search("дрел", 1, 10)));
+        assertTrue(index.search("молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchWhenQueryShorterThanNgramThenScanAllDocuments() {
+        index.rebuild(List.of(
+                new ItemDocument(1, 1L, "Pen", "ink", true, null),
+                new ItemDocument(2, 1L, "Cup", "tea", true, null)));
+
+        assertEquals(List.of(1), ids(index.search("pe", 0, 10)));
+        assertEquals(List.of(1, 2), ids(index.search("", 0, 10)));
+    }
+
+    @Test
+    void searchWhenGramsMatchButSubstringDoesNotThenNotFound() {
+        index.put(new ItemDocument(1, 1L, "abcd xbcy", "", true, null));
+
+        assertTrue(index.search("abcy", 0, 10).isEmpty());
+        assertEquals(List.of(1), ids(index.search("xbcy", 0, 10)));
+    }
+
+    @Test
+    void putWhenItemEditedThenOldTextNoLongerMatches() {
+        index.put(new ItemDocument(1, 1L, "Дрель", "", true, null));
+        index.put(new ItemDocument(1, 1L, "Пила", "", true, null));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1), ids(index.search("пила", 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removeOwnerWhenOwnerDeletedThenOwnerItemsRemoved() {
+        index.rebuild(List.of(
+                new ItemDocument(1, 1L, "Дрель", "", true, null),
+                new ItemDocument(2, 2L, "Дрель", "", true, null)));
+
+        index.removeOwner(1L);
+
+        assertEquals(List.of(2), ids(index.search("дрель", 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchRankedWhenNameMatchesThenRankedAboveDescriptionMatch() {
+        index.rebuild(List.of(
+                new ItemDocument(1, 1L, "Отвёртка", "Подходит к дрели", true, null),
+                new ItemDocument(2, 1L, "Дрелька детская", "Игрушка", true, null),
+                new ItemDocument(3, 1L, "Дрель", "Аккумуляторная дрель", true, null),
+                new ItemDocument(4, 1L, "Дрель", "Сетевая", false, null)));
+
+        assertEquals(List.of(3, 2, 1), ids(index.searchRanked(List.of("дрель"), 0, 10)));
+        assertEquals(List.of(2, 1), ids(index.searchRanked(List.of("дрель"), 1, 10)));
+    }
+
+    @Test
+    void searchRankedWhenQueryHasTypoThenFound() {
+        index.rebuild(List.of(
+                new ItemDocument(1, 1L, "Дрель", "Аккумуляторная", true, null),
+                new ItemDocument(2, 1L, "Перфоратор", "Ударный", true, null)));
+
+        assertEquals(List.of(1), ids(index.searchRanked(List.of("дрэль"), 0, 10)));
+        assertEquals(List.of(2), ids(index.searchRanked(List.of("перфаротор"), 0, 10)));
+        assertEquals(List.of(1), ids(index.searchRanked(List.of("дрель", "акамуляторная"), 0, 10)));
+        assertTrue(index.searchRanked(List.of("дрель", "ударный"), 0, 10).isEmpty());
+        assertTrue(index.searchRanked(List.of("пила"), 0, 10).isEmpty());
+    }
+
+    private List<Integer> ids(List<ItemDocument> documents) {
+        return documents.stream().map(ItemDocument::getId).collect(Collectors.toList());
+    }
+}
@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.comment.dao.CommentRepository;
+import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -19,13 +26,14 @@ import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 class ItemServiceIntegrationTest {
 
@@ -47,6 +55,12 @@ class ItemServiceIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
     private final User user1 = new User(1L, "test user 1", "test@mail.ru");
     private final User user2 = new User(2L, "test user 2", "test@mail.com");
 
@@ -157,4 +171,42 @@ class ItemServiceIntegrationTest {
         assertEquals(1, actualItemDto.getComments().size());
         assertEquals(commentClientDto.getText(), actualItemDto.getComments().get(0).getText());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void getAllUserItemsWhenPageGrowsThenNumberOfStatementsStaysConstant() {
+        for (int i = 0; i < 5; i++) {
+            Item item = itemRepository.save(new Item(null, "extra item " + i, "extra description", true, user1, null));
+            bookingRepository.save(new Booking(null, item, user2,
+                    LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), Status.APPROVED));
+            bookingRepository.save(new Booking(null, item, user2,
+                    LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), Status.WAITING));
+            commentRepository.save(new Comment(null, "comment " + i, item, user2, LocalDateTime.now()));
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        em.flush();
+        em.clear();
+        newRequest();
+        statistics.clear();
+        List<ItemServerDto> smallPage = itemService.getAllUserItems(1L, 0, 1);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        em.clear();
+        newRequest();
+        statistics.clear();
+        List<ItemServerDto> fullPage = itemService.getAllUserItems(1L, 0, 10);
+        long fullPageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(1, smallPage.size());
+        assertEquals(6, fullPage.size());
+        assertEquals(1, fullPage.get(1).getComments().size());
+        assertEquals(user2.getName(), fullPage.get(1).getComments().get(0).getAuthorName());
+        assertEquals(smallPageStatements, fullPageStatements);
+        assertEquals(5, fullPageStatements);
+    }
+
+    private void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
@@ -1,36 +1,46 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.EntityFinder;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.exception.UnauthorizedAccessException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.comment.dao.CommentRepository;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.model.CommentClientDto;
 import ru.practicum.shareit.item.comment.model.CommentServerDto;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.AvailabilitySlotDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemClientDto;
 import ru.practicum.shareit.item.model.ItemServerDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,7 +48,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
 
-    @InjectMocks
     ItemServiceImpl itemService;
 
     @Mock
@@ -56,6 +65,15 @@ class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemSearchCache searchCache;
+
+    @Spy
+    private ItemViewCache itemViewCache = new ItemViewCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
     private final User user1 = new User(1L, "test user 1", "test@mail.ru");
     private final User user2 = new User(2L, "test user 2", "test@mail.com");
 
@@ -72,13 +90,23 @@ class ItemServiceTest {
             2, item1, user2, LocalDateTime.of(2666, 1, 1, 0, 0), LocalDateTime.of(2666, 1, 2, 0, 0), Status.APPROVED);
     private final Comment comment1 = new Comment(1, "very good", item1, user2, LocalDateTime.now());
 
+    @BeforeEach
+    void setUp() {
+        itemService = new ItemServiceImpl(itemRepository, bookingRepository, commentRepository, searchEngine, searchCache,
+                itemViewCache, new EntityFinder(userRepository, itemRepository, bookingRepository, requestRepository,
+                new KnownUserFilter(userRepository, new SimpleMeterRegistry(), false)));
+        lenient().when(searchCache.search(anyString(), anyInt(), anyInt(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<ItemServerDto>>>getArgument(4).get());
+    }
+
     @Test
     void getAllUserItemsWhenItemsExistThenItemDtoList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"))))
                 .thenReturn(List.of(item1, item2));
-        when(bookingRepository.findAllByItemId(1)).thenReturn(List.of(booking1, booking2));
-        when(commentRepository.findAllByItemId(1)).thenReturn(List.of(comment1));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1, 2)), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1, 2)), any())).thenReturn(List.of(booking2));
+        when(commentRepository.findAllByItemIdIn(List.of(1, 2))).thenReturn(List.of(comment1));
         List<ItemServerDto> actualItems = itemService.getAllUserItems(1L, 0, 1);
 
         assertEquals(2, actualItems.size());
@@ -102,16 +130,19 @@ class ItemServiceTest {
 
     @Test
     void getAllUserItemsWhenNoItemExistsThenEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"))))
                 .thenReturn(Collections.emptyList());
         List<ItemServerDto> actualItems = assertDoesNotThrow(() -> itemService.getAllUserItems(1L, 0, 1));
         assertTrue(actualItems.isEmpty());
+        verify(commentRepository, never()).findAllByItemIdIn(any());
+        verify(bookingRepository, never()).findLastBookingsByItemIds(any(), any());
+        verify(bookingRepository, never()).findNextBookingsByItemIds(any(), any());
     }
 
     @Test
     void getAllUserItemsWhenUserNotFoundThenException() {
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(3L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> itemService.getAllUserItems(3L, 0, 1));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -121,8 +152,9 @@ class ItemServiceTest {
     @Test
     void getItemWhenRequestedByOwnerThenItemDtoWithBookingsAndComments() {
         when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
-        when(bookingRepository.findAllByItemId(1)).thenReturn(List.of(booking1, booking2));
-        when(commentRepository.findAllByItemId(1)).thenReturn(List.of(comment1));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1)), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1)), any())).thenReturn(List.of(booking2));
+        when(commentRepository.findAllByItemIdIn(List.of(1))).thenReturn(List.of(comment1));
         ItemServerDto actualItem = itemService.getItem(1L, 1);
 
         assertEquals(item1.getId(), actualItem.getId());
@@ -137,7 +169,7 @@ class ItemServiceTest {
     @Test
     void getItemWhenRequestedByOtherUserThenItemDtoWithoutBookingsAndWithComments() {
         when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
-        when(commentRepository.findAllByItemId(1)).thenReturn(List.of(comment1));
+        when(commentRepository.findAllByItemIdIn(List.of(1))).thenReturn(List.of(comment1));
         ItemServerDto actualItem = itemService.getItem(2L, 1);
 
         assertEquals(item1.getId(), actualItem.getId());
@@ -149,6 +181,28 @@ class ItemServiceTest {
         assertEquals(1, actualItem.getComments().size());
     }
 
+    @Test
+    void getItemWhenRequestedAgainThenServedFromCacheUntilEdited() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1)), any())).thenReturn(List.of(booking1));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1)), any())).thenReturn(List.of(booking2));
+        when(commentRepository.findAllByItemIdIn(List.of(1))).thenReturn(List.of(comment1));
+        when(itemRepository.save(any())).thenReturn(item1);
+
+        itemService.getItem(1L, 1);
+        ItemServerDto cachedItem = itemService.getItem(1L, 1);
+        ItemServerDto otherUserItem = itemService.getItem(2L, 1);
+        assertNotNull(cachedItem.getNextBooking());
+        assertNull(otherUserItem.getNextBooking());
+        verify(commentRepository, times(1)).findAllByItemIdIn(List.of(1));
+        verify(bookingRepository, times(1)).findNextBookingsByItemIds(eq(List.of(1)), any());
+
+        itemService.editItem(1L, 1, new ItemClientDto("new item", null, null, null));
+        itemService.getItem(2L, 1);
+        verify(commentRepository, times(2)).findAllByItemIdIn(List.of(1));
+    }
+
     @Test
     void getItemWhenItemNotFoundThenException() {
         when(itemRepository.findById(3)).thenReturn(Optional.empty());
@@ -160,7 +214,8 @@ class ItemServiceTest {
     @Test
     void addItemWhenUserExistsAndValidItemDtoAndHasRequestThenPersistItemAndReturnItemDto() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, 1);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.getReferenceById(2L)).thenReturn(user2);
         when(requestRepository.findById(1)).thenReturn(Optional.of(request1));
         when(itemRepository.save(any())).thenReturn(new Item(5, "new item", "new description", true, user2, request1));
 
@@ -175,7 +230,8 @@ class ItemServiceTest {
     @Test
     void addItemWhenUserExistsAndValidItemDtoAndNoRequestThenPersistItemAndReturnItemDto() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, null);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.getReferenceById(2L)).thenReturn(user2);
         when(itemRepository.save(any())).thenReturn(new Item(5, "new item", "new description", true, user2, null));
 
         ItemServerDto actualItem = itemService.addItem(2L, itemDto);
@@ -186,12 +242,14 @@ class ItemServiceTest {
         assertNull(actualItem.getRequestId());
 
         verify(requestRepository, never()).findById(anyInt());
+        verify(searchEngine).onItemSaved(any());
+        verify(searchCache).onCatalogChanged();
     }
 
     @Test
     void addItemWhenUserNotFoundThenException() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, null);
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(3L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> itemService.addItem(3L, itemDto));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -201,7 +259,8 @@ class ItemServiceTest {
     @Test
     void addItemWhenRequestNotFoundThenException() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, 2);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.getReferenceById(2L)).thenReturn(user2);
         when(requestRepository.findById(2)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
@@ -213,7 +272,7 @@ class ItemServiceTest {
     @Test
     void editItemWhenUserAndItemExistAndValidDtoThenPersistItemAndReturnItemDto() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
         when(itemRepository.save(any())).thenReturn(new Item(1, "new item", "new description", true, user1, null));
 
@@ -228,7 +287,7 @@ class ItemServiceTest {
     @Test
     void editItemWhenUserAndItemExistAndNoNewFieldsThenPersistItemAndReturnItemDtoUnchanged() {
         ItemClientDto itemDto = new ItemClientDto(null, null, null, null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
         when(itemRepository.save(any())).thenReturn(new Item(1, "test item 1", "test description 1", true, user1, null));
 
@@ -243,7 +302,7 @@ class ItemServiceTest {
     @Test
     void editItemWhenUserIsNotOwnerThenException() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, null);
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(itemRepository.findById(1)).thenReturn(Optional.of(item1));
 
         UnauthorizedAccessException exception = assertThrows(UnauthorizedAccessException.class,
@@ -254,8 +313,8 @@ class ItemServiceTest {
     @Test
     void editItemWhenEntityNotFoundThenException() {
         ItemClientDto itemDto = new ItemClientDto("new item", "new description", true, null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(3L)).thenReturn(false);
         when(itemRepository.findById(5)).thenReturn(Optional.empty());
         // case: missing user
         EntityNotFoundException exception1 = assertThrows(EntityNotFoundException.class,
@@ -271,23 +330,32 @@ class ItemServiceTest {
 
     @Test
     void getItemsBySearchWhenHasSearchTextThenItemDtoList() {
-        when(itemRepository.search("test", Pageable.ofSize(1))).thenReturn(List.of(item1, item2, item3, item4));
-        List<ItemServerDto> actualItems = itemService.getItemsBySearch("test", 0, 1);
+        when(searchEngine.search("test", 0, 1)).thenReturn(List.of(ItemMapper.toItemServerDto(item1),
+                ItemMapper.toItemServerDto(item2), ItemMapper.toItemServerDto(item3), ItemMapper.toItemServerDto(item4)));
+        List<ItemServerDto> actualItems = itemService.getItemsBySearch("test", 0, 1, false);
         assertEquals(4, actualItems.size());
     }
 
     @Test
     void getItemsBySearchWhenSearchTextMismatchesAnyItemThenEmptyList() {
-        when(itemRepository.search("mismatch", Pageable.ofSize(1))).thenReturn(Collections.emptyList());
-        List<ItemServerDto> actualItems = itemService.getItemsBySearch("mismatch", 0, 1);
+        when(searchEngine.search("mismatch", 0, 1)).thenReturn(Collections.emptyList());
+        List<ItemServerDto> actualItems = itemService.getItemsBySearch("mismatch", 0, 1, false);
         assertTrue(actualItems.isEmpty());
     }
 
+    @Test
+    void getItemsBySearchWhenRankedThenRankedSearch() {
+        when(searchEngine.searchRanked("test", 0, 1)).thenReturn(List.of(ItemMapper.toItemServerDto(item2)));
+        List<ItemServerDto> actualItems = itemService.getItemsBySearch("test", 0, 1, true);
+        assertEquals(List.of(2), List.of(actualItems.get(0).getId()));
+        verify(searchEngine, never()).search(anyString(), anyInt(), anyInt());
+    }
+
     @Test
     void getItemsBySearchWhenEmptySearchTextThenEmptyListWithoutInvokingSearch() {
-        List<ItemServerDto> actualItems = itemService.getItemsBySearch("", 0, 1);
+        List<ItemServerDto> actualItems = itemService.getItemsBySearch("", 0, 1, false);
         assertTrue(actualItems.isEmpty());
-        verify(itemRepository, never()).search(anyString(), any());
+        verify(searchEngine, never()).search(anyString(), anyInt(), anyInt());
     }
 
     @Test
@@ -348,4 +416,47 @@ class ItemServiceTest {
 
         verify(commentRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailabilityWhenBookingsOverlapThenMergedFreeSlots() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        Booking startsBeforeFrom = new Booking(
+                3, item1, user2, from.minusDays(1), from.plusDays(1), Status.APPROVED);
+        Booking first = new Booking(
+                4, item1, user2, from.plusDays(3), from.plusDays(5), Status.WAITING);
+        Booking nested = new Booking(
+                5, item1, user2, from.plusDays(3).plusHours(1), from.plusDays(4), Status.APPROVED);
+        Booking adjacent = new Booking(
+                6, item1, user2, from.plusDays(5), from.plusDays(6), Status.APPROVED);
+        when(itemRepository.existsById(1)).thenReturn(true);
+        when(bookingRepository.findAllInPeriod(eq(1), eq(from), eq(to), any()))
+                .thenReturn(List.of(startsBeforeFrom, first, nested, adjacent));
+
+        List<AvailabilitySlotDto> slots = itemService.getItemAvailability(1, from, to);
+
+        assertEquals(List.of(
+                new AvailabilitySlotDto(from.plusDays(1), from.plusDays(3)),
+                new AvailabilitySlotDto(from.plusDays(6), to)), slots);
+    }
+
+    @Test
+    void getItemAvailabilityWhenNoBookingsThenWholePeriodIsFree() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        when(itemRepository.existsById(1)).thenReturn(true);
+        when(bookingRepository.findAllInPeriod(eq(1), eq(from), eq(to), any())).thenReturn(List.of());
+
+        assertEquals(List.of(new AvailabilitySlotDto(from, to)), itemService.getItemAvailability(1, from, to));
+    }
+
+    @Test
+    void getItemAvailabilityWhenPeriodInvalidThenException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        InvalidOperationException exception = assertThrows(InvalidOperationException.class,
+                () -> itemService.getItemAvailability(1, from, from));
+        assertEquals("Начало периода должно быть раньше его окончания", exception.getMessage());
+        verify(bookingRepository, never()).findAllInPeriod(any(), any(), any(), any());
+    }
+}
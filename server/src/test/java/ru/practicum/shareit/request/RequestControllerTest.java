@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.RequestClientDto;
 import ru.practicum.shareit.request.model.RequestServerDto;
 import ru.practicum.shareit.request.service.RequestService;
@@ -19,12 +20,15 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
 import static ru.practicum.shareit.Constants.USER_ID;
 
 @WebMvcTest(controllers = RequestController.class)
@@ -103,6 +107,38 @@ class RequestControllerTest {
         verify(requestService, times(1)).getOtherRequests(anyLong(), anyInt(), anyInt());
     }
 
+    @SneakyThrows
+    @Test
+    void getOtherRequestsWhenCursorGivenThenStatusOkWithNextCursorHeader() {
+        when(requestService.getOtherRequestsAfter(1L, "", 1)).thenReturn(new CursorPage<>(List.of(requestServerDto), "next"));
+
+        mvc.perform(get("/requests/all")
+                        .header(USER_ID, 1L)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(requestServerDto))));
+
+        verify(requestService, never()).getOtherRequests(anyLong(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getOtherRequestsWhenLastPageByCursorThenStatusOkWithoutNextCursorHeader() {
+        when(requestService.getOtherRequestsAfter(anyLong(), eq("token"), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(requestServerDto), null));
+
+        mvc.perform(get("/requests/all")
+                        .header(USER_ID, 1L)
+                        .param("cursor", "token")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(requestServerDto))));
+    }
+
     @SneakyThrows
     @Test
     void getOtherRequestsWhenNoSuchUserFoundThenStatusOkAndRequestDtoList() {
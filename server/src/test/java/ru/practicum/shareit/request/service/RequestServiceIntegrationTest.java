@@ -5,15 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.model.RequestClientDto;
+import ru.practicum.shareit.request.model.RequestServerDto;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -96,4 +99,30 @@ class RequestServiceIntegrationTest {
         assertEquals(request1.getDescription(), actualRequest.getDescription());
         assertEquals(request1.getRequestor(), actualRequest.getRequestor());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void getOtherRequestsAfter() {
+        User reader = requestRepository.findAll().stream()
+                .filter(request -> request.getDescription().equals(request1.getDescription()))
+                .findFirst().get().getRequestor();
+        User requestor = requestRepository.findAll().stream()
+                .filter(request -> request.getDescription().equals(request2.getDescription()))
+                .findFirst().get().getRequestor();
+        LocalDateTime created = LocalDateTime.of(2001, 1, 1, 0, 0, 0);
+        requestRepository.saveAll(List.of(
+                new Request(null, "same time 1", requestor, created),
+                new Request(null, "same time 2", requestor, created),
+                new Request(null, "same time 3", requestor, created)));
+
+        List<String> descriptions = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPage<RequestServerDto> page = requestService.getOtherRequestsAfter(reader.getId(), cursor, 2);
+            page.getItems().forEach(request -> descriptions.add(request.getDescription()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("same time 3", "same time 2", "same time 1", request2.getDescription()), descriptions);
+    }
+}
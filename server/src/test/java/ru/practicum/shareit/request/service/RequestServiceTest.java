@@ -1,26 +1,36 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
+import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.InvalidOperationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RequestItemView;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.model.RequestClientDto;
 import ru.practicum.shareit.request.model.RequestServerDto;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,7 +41,6 @@ import static org.mockito.Mockito.*;
 @Transactional
 class RequestServiceTest {
 
-    @InjectMocks
     private RequestServiceImpl requestService;
 
     @Mock
@@ -52,12 +61,27 @@ class RequestServiceTest {
      = new Request(2, "test request 2", user1, LocalDateTime.of(2000, 1, 2, 0, 0, 0));
 
      private final Item item1 = new Item(1, "test item", "test item descr", true, user2, request2);
+    private final RequestItemView itemView1 = new SpelAwareProxyProjectionFactory().createProjection(
+            RequestItemView.class, Map.of(
+                    "id", item1.getId(),
+                    "name", item1.getName(),
+                    "description", item1.getDescription(),
+                    "available", item1.getAvailable(),
+                    "requestId", request2.getId()));
+
+    @BeforeEach
+    void setUp() {
+        requestService = new RequestServiceImpl(requestRepository, itemRepository,
+                new EntityFinder(userRepository, itemRepository, mock(BookingRepository.class), requestRepository,
+                        new KnownUserFilter(userRepository, new SimpleMeterRegistry(), false)));
+    }
 
     @Test
     void addRequestWhenUserExistsAndValidRequestDtoThenPersistRequestAndReturnRequestDto() {
         RequestClientDto requestDto = new RequestClientDto("new request");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user1);
         when(requestRepository.save(any())).thenReturn(new Request(2, "new request", user1, LocalDateTime.now()));
         RequestServerDto actualRequest = requestService.addRequest(1L, requestDto);
 
@@ -71,7 +95,7 @@ class RequestServiceTest {
     void addRequestWhenUserNotFoundThenException() {
         RequestClientDto request2 = new RequestClientDto("new request");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> requestService.addRequest(1L, request2));
@@ -81,10 +105,9 @@ class RequestServiceTest {
 
     @Test
     void getUserRequestsWhenUserAndRequestsExistThenRequestDtoList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdOrderByCreatedDesc(1L)).thenReturn(List.of(request2, request1));
-        when(itemRepository.findAllByRequestId(1)).thenReturn(Collections.emptyList());
-        when(itemRepository.findAllByRequestId(2)).thenReturn(List.of(item1));
+        when(itemRepository.findAllByRequestIdIn(List.of(2, 1))).thenReturn(List.of(itemView1));
 
         List<RequestServerDto> actualRequestDtos = requestService.getUserRequests(1L);
         assertEquals(2, actualRequestDtos.size());
@@ -100,7 +123,7 @@ class RequestServiceTest {
 
     @Test
     void getUserRequestsWhenUserExistsAndNoRequestsThenEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdOrderByCreatedDesc(1L)).thenReturn(Collections.emptyList());
 
         List<RequestServerDto> actualRequestDtos = assertDoesNotThrow(() -> requestService.getUserRequests(1L));
@@ -109,7 +132,7 @@ class RequestServiceTest {
 
     @Test
     void getUserRequestsWhenUserNotFoundThenException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> requestService.getUserRequests(1L));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -118,10 +141,10 @@ class RequestServiceTest {
 
     @Test
     void getOtherRequestsWhenUserAndRequestsExistThenRequestDtoList() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.existsById(2L)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdNot(2L, PageRequest.of(0, 1, Sort.by("created").descending())))
             .thenReturn(List.of(request2, request1));
-        when(itemRepository.findAllByRequestId(anyInt())).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllByRequestIdIn(List.of(2, 1))).thenReturn(Collections.emptyList());
 
         List<RequestServerDto> actualRequestDtos = requestService.getOtherRequests(2L, 0, 1);
         assertEquals(2, actualRequestDtos.size());
@@ -135,7 +158,7 @@ class RequestServiceTest {
 
     @Test
     void getOtherRequestsWhenUserExistsAndNoRequestsThenEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdNot(1L, PageRequest.of(0, 1, Sort.by("created").descending())))
             .thenReturn(Collections.emptyList());
 
@@ -143,9 +166,46 @@ class RequestServiceTest {
         assertTrue(actualRequestDtos.isEmpty());
     }
 
+    @Test
+    void getOtherRequestsAfterWhenMoreRequestsThenPageWithNextCursor() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(requestRepository.findAllByRequestorIdNot(2L, PageRequest.of(0, 2, Sort.by("created", "id").descending())))
+                .thenReturn(List.of(request2, request1));
+        when(itemRepository.findAllByRequestIdIn(List.of(2))).thenReturn(List.of(itemView1));
+
+        CursorPage<RequestServerDto> page = requestService.getOtherRequestsAfter(2L, "", 1);
+        assertEquals(1, page.getItems().size());
+        assertEquals(request2.getId(), page.getItems().get(0).getId());
+        assertEquals(1, page.getItems().get(0).getItems().size());
+        assertEquals(new Cursor(request2.getCreated(), request2.getId()).encode(), page.getNextCursor());
+    }
+
+    @Test
+    void getOtherRequestsAfterWhenCursorGivenThenContinueAfterIt() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(requestRepository.findAllByRequestorIdNotBefore(2L, request2.getCreated(), request2.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(request1));
+        when(itemRepository.findAllByRequestIdIn(List.of(1))).thenReturn(Collections.emptyList());
+
+        CursorPage<RequestServerDto> page = requestService.getOtherRequestsAfter(
+                2L, new Cursor(request2.getCreated(), request2.getId()).encode(), 1);
+        assertEquals(1, page.getItems().size());
+        assertEquals(request1.getId(), page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getOtherRequestsAfterWhenCursorWithoutPositionThenException() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(InvalidOperationException.class,
+                () -> requestService.getOtherRequestsAfter(2L, new Cursor(null, 1L).encode(), 1));
+        verify(requestRepository, never()).findAllByRequestorIdNotBefore(anyLong(), any(), anyInt(), any());
+    }
+
     @Test
     void getOtherRequestsWhenUserNotFoundThenException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> requestService.getOtherRequests(1L, 0, 1));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -154,18 +214,21 @@ class RequestServiceTest {
 
     @Test
     void getRequestWhenUserAndRequestExistThenRequestDto() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findById(2)).thenReturn(Optional.of(request2));
-        when(itemRepository.findAllByRequestId(2)).thenReturn(List.of(item1));
+        when(itemRepository.findAllByRequestIdIn(List.of(2))).thenReturn(List.of(itemView1));
 
         RequestServerDto actualRequest = requestService.getRequest(1L, 2);
         assertEquals(request2.getDescription(), actualRequest.getDescription());
         assertEquals(request2.getCreated(), actualRequest.getCreated());
+        assertEquals(1, actualRequest.getItems().size());
+        assertEquals(item1.getId(), actualRequest.getItems().get(0).getId());
+        assertEquals(request2.getId(), actualRequest.getItems().get(0).getRequestId());
     }
 
     @Test
     void getRequestWhenUserNotFoundThenException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> requestService.getRequest(1L, 2));
         assertEquals("Пользователь не найден", exception.getMessage());
@@ -174,7 +237,7 @@ class RequestServiceTest {
 
     @Test
     void getRequestWhenUserExistsAndRequestNotFoundThenException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findById(2)).thenReturn(Optional.empty());
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> requestService.getRequest(1L, 2));
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.model.UserDto;
@@ -15,14 +18,17 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.practicum.shareit.Constants.NEXT_CURSOR;
 
 @WebMvcTest(controllers = UserController.class)
 class UserControllerTest {
@@ -40,17 +46,96 @@ class UserControllerTest {
 
     @SneakyThrows
     @Test
-    void getAllUsersWhenInvokedThenStatusOkAndUserList() {
-        when(userService.getAllUsers()).thenReturn(List.of(userDto));
-
-        mvc.perform(get("/users"))
+    @SuppressWarnings("unchecked")
+    void getAllUsersWhenNoPaginationThenStatusOkAndAllUsers() {
+        UserDto otherUserDto = new UserDto(2L, "other", "other@mail.ru");
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(otherUserDto);
+            return null;
+        }).when(userService).forEachUser(any(Consumer.class));
+
+        MvcResult result = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(userDto.getName())))
-                .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
+                .andExpect(jsonPath("$[1].email", is(otherUserDto.getEmail())));
+        verify(userService, never()).getAllUsers(anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsersWhenOnlySizeRequestedThenFirstPage() {
+        when(userService.getAllUsers(0, 10)).thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(userService, times(1)).getAllUsers(0, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsersWhenPageRequestedThenPassFromAndSize() {
+        when(userService.getAllUsers(20, 5)).thenReturn(List.of(userDto));
+
+        mvc.perform(get("/users")
+                        .param("from", "20")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
+
+        verify(userService, times(1)).getAllUsers(20, 5);
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsersAfterWhenMorePagesThenStatusOkWithNextCursorHeader() {
+        when(userService.getUsersAfter("", 1)).thenReturn(new CursorPage<>(List.of(userDto), "next"));
+
+        mvc.perform(get("/users")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
 
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, never()).getAllUsers(anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamUsersWhenNdjsonAcceptedThenOneUserPerLine() {
+        UserDto otherUserDto = new UserDto(2L, "other", "other@mail.ru");
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            action.accept(otherUserDto);
+            return null;
+        }).when(userService).forEachUser(any(Consumer.class));
+
+        MvcResult result = mvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n" +
+                        mapper.writeValueAsString(otherUserDto) + "\n"));
+        verify(userService, never()).getAllUsers(anyInt(), anyInt());
     }
 
     @SneakyThrows
@@ -65,6 +150,21 @@ class UserControllerTest {
         verify(userService, times(1)).getUser(anyLong());
     }
 
+    @SneakyThrows
+    @Test
+    void getUserWhenEtagMatchesThenStatusNotModified() {
+        when(userService.getUser(anyLong())).thenReturn(userDto);
+
+        String etag = mvc.perform(get("/users/{userId}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{userId}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @SneakyThrows
     @Test
     void getUserWhenNoSuchUserFoundThenStatusNotFound() {
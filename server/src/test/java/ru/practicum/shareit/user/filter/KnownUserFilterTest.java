@@ -0,0 +1,99 @@
+package ru.practicum.shareit.user.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KnownUserFilterTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void mightExistWhenNotBuiltThenTrue() {
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, true);
+
+        assertTrue(filter.mightExist(42L));
+    }
+
+    @Test
+    void mightExistWhenDisabledThenTrueAndNoQuery() {
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, false);
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(42L));
+        verify(userRepository, never()).findAllIds();
+    }
+
+    @Test
+    void mightExistWhenBuiltThenFalseOnlyForNonPositiveIds() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 3L, 100_000L));
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, true);
+        filter.rebuild();
+
+        // ID 2 и 4 могли быть выданы другому экземпляру сервиса
+        assertTrue(filter.mightExist(1L));
+        assertTrue(filter.mightExist(2L));
+        assertTrue(filter.mightExist(4L));
+        assertTrue(filter.mightExist(100_001L));
+        assertFalse(filter.mightExist(0L));
+        assertFalse(filter.mightExist(-1L));
+        assertTrue(filter.mightExist(Integer.MAX_VALUE + 1L));
+        assertEquals(3, meterRegistry.get("user.filter.size").gauge().value());
+    }
+
+    @Test
+    void mightExistWhenUserRemovedThenFalseAfterCommit() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, true);
+        filter.rebuild();
+
+        filter.onUserRemoved(1L);
+        assertFalse(filter.mightExist(1L));
+        assertTrue(filter.mightExist(2L));
+        assertEquals(1, meterRegistry.get("user.filter.size").gauge().value());
+        assertEquals(1, meterRegistry.get("user.filter.removed").gauge().value());
+
+        when(userRepository.findAllIds()).thenReturn(List.of(2L));
+        filter.rebuild();
+        assertFalse(filter.mightExist(1L));
+    }
+
+    @Test
+    void mightExistWhenUserRemovedBypassingServiceThenFalseAfterRebuild() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, true);
+        filter.rebuild();
+
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 3L, 4L));
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(1L));
+        assertFalse(filter.mightExist(2L));
+        assertTrue(filter.mightExist(3L));
+        assertTrue(filter.mightExist(4L));
+        assertEquals(3, meterRegistry.get("user.filter.size").gauge().value());
+    }
+
+    @Test
+    void recordFalsePositiveWhenInvokedThenRateReported() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 5L));
+        KnownUserFilter filter = new KnownUserFilter(userRepository, meterRegistry, true);
+        filter.rebuild();
+
+        filter.mightExist(1L);
+        filter.mightExist(3L);
+        filter.recordFalsePositive();
+        filter.mightExist(0L);
+
+        assertEquals(2, meterRegistry.get("user.filter.checks").tag("result", "positive").counter().count());
+        assertEquals(1, meterRegistry.get("user.filter.checks").tag("result", "negative").counter().count());
+        assertEquals(1, meterRegistry.get("user.filter.false-positives").counter().count());
+        assertEquals(0.5, meterRegistry.get("user.filter.false-positive-rate").gauge().value());
+    }
+}
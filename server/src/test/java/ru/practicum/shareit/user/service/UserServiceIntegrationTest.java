@@ -5,16 +5,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserDto;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -29,8 +39,11 @@ class UserServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
-    private final User user1 = new User(1L, "test1", "test@mail.ru");
-    private final User user2 = new User(2L, "test2", "test@mail.com");
+    @Autowired
+    private KnownUserFilter knownUsers;
+
+    private final User user1 = new User(null, "test1", "test@mail.ru");
+    private final User user2 = new User(null, "test2", "test@mail.com");
 
     @BeforeEach
     void setUp() {
@@ -61,30 +74,62 @@ class UserServiceIntegrationTest {
         assertEquals(user1.getEmail(), actualUser.getEmail());
     }
 
+    @Test
+    @DirtiesContext
+    void getUserWhenSavedBypassingServiceThenFoundDespiteFilter() {
+        assertEquals(user1.getName(), userService.getUser(user1.getId()).getName());
+
+        userService.deleteUser(user2.getId());
+        EntityNotFoundException exception =
+                assertThrows(EntityNotFoundException.class, () -> userService.getUser(user2.getId()));
+        assertEquals("Пользователь не найден", exception.getMessage());
+    }
+
+    @Test
+    @DirtiesContext
+    void getUserWhenSavedWithIdBelowKnownIdsThenFound() {
+        em.createNativeQuery("INSERT INTO users (id, name, email) VALUES (1000, 'test3', 'test@mail.cn')")
+                .executeUpdate();
+        knownUsers.rebuild();
+
+        User user = userRepository.saveAndFlush(new User(null, "test4", "test@mail.de"));
+        assertTrue(user.getId() < 1000);
+        assertEquals(user.getName(), userService.getUser(user.getId()).getName());
+        assertEquals("test3", userService.getUser(1000L).getName());
+    }
+
     @Test
     @DirtiesContext
     void addUser() {
         UserDto userDto = new UserDto(null, "test3", "test@mail.cn");
-        userService.addUser(userDto);
+        UserDto addedUser = userService.addUser(userDto);
 
         User actualUser = em.createQuery("Select u from User u where u.id = :id", User.class)
-            .setParameter("id", 3L)
+            .setParameter("id", addedUser.getId())
             .getSingleResult();
         assertEquals(userDto.getName(), actualUser.getName());
         assertEquals(userDto.getEmail(), actualUser.getEmail());
     }
 
+    @Test
+    @DirtiesContext
+    void addUserWhenEmailTakenThenException() {
+        UserDto userDto = new UserDto(null, "test3", user1.getEmail());
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.addUser(userDto));
+    }
+
     @Test
     @DirtiesContext
     void updateUser() {
         UserDto userDto = new UserDto(null, "test new", "test@mail.ru");
-        userService.updateUser(1L, userDto);
+        userService.updateUser(user1.getId(), userDto);
 
         Long count = em.createQuery("Select count(u) from User u", Long.class).getSingleResult();
         assertEquals(2, count);
 
         User actualUser = em.createQuery("Select u from User u where u.id = :id", User.class)
-            .setParameter("id", 1L)
+            .setParameter("id", user1.getId())
             .getSingleResult();
         assertEquals(userDto.getName(), actualUser.getName());
         assertEquals(userDto.getEmail(), actualUser.getEmail());
@@ -93,7 +138,7 @@ class UserServiceIntegrationTest {
     @Test
     @DirtiesContext
     void deleteUser() {
-        userService.deleteUser(2L);
+        userService.deleteUser(user2.getId());
         List<User> actualUsers = em.createQuery("Select u from User u", User.class).getResultList();
         assertEquals(1, actualUsers.size());
         assertFalse(actualUsers.stream().anyMatch(user ->
@@ -102,4 +147,30 @@ class UserServiceIntegrationTest {
                 user.getEmail().equals(user2.getEmail())
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void getUsersAfter() {
+        CursorPage<UserDto> firstPage = userService.getUsersAfter("", 1);
+        assertEquals(List.of(user1.getName()), names(firstPage.getItems()));
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPage<UserDto> lastPage = userService.getUsersAfter(firstPage.getNextCursor(), 1);
+        assertEquals(List.of(user2.getName()), names(lastPage.getItems()));
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    @DirtiesContext
+    void forEachUser() {
+        List<UserDto> actualUsers = new ArrayList<>();
+        userService.forEachUser(actualUsers::add);
+        assertEquals(List.of(user1.getName(), user2.getName()), names(actualUsers));
+        assertEquals(List.of(user1.getEmail(), user2.getEmail()),
+                actualUsers.stream().map(UserDto::getEmail).collect(Collectors.toList()));
+    }
+
+    private static List<String> names(List<UserDto> users) {
+        return users.stream().map(UserDto::getName).collect(Collectors.toList());
+    }
+}
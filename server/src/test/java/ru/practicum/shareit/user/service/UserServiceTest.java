@@ -1,43 +1,91 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.EntityFinder;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.InvalidOperationException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dao.RequestRepository;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.filter.KnownUserFilter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserDto;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @Transactional
 class UserServiceTest {
 
-    @InjectMocks
     private UserServiceImpl userService;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIndex;
+
+    @Mock
+    private ItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemSearchCache searchCache;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    private KnownUserFilter knownUsers;
+
     private final User user1 = new User(1L, "test1", "test@mail.ru");
     private final User user2 = new User(2L, "test2", "test@mail.com");
 
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 10L));
+        knownUsers = new KnownUserFilter(userRepository, new SimpleMeterRegistry(), true);
+        knownUsers.rebuild();
+        userService = new UserServiceImpl(userRepository, bookingRepository, bookingIndex, searchEngine, searchCache,
+                itemViewCache,
+                new EntityFinder(userRepository, mock(ItemRepository.class), mock(BookingRepository.class),
+                        mock(RequestRepository.class), knownUsers), knownUsers);
+    }
+
     @Test
     void getAllUsersWhenUsersExistThenUserDtoList() {
-        when(userRepository.findAll()).thenReturn(List.of(user1, user2));
-        List<UserDto> userDtoList = userService.getAllUsers();
+        when(userRepository.findAll(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(new PageImpl<>(List.of(user1, user2)));
+        List<UserDto> userDtoList = userService.getAllUsers(0, 10);
 
         assertEquals(2, userDtoList.size());
         assertEquals(user1.getId(), userDtoList.get(0).getId());
@@ -50,11 +98,46 @@ class UserServiceTest {
 
     @Test
     void getAllUsersWhenNoUsersThenEmptyList() {
-        when(userRepository.findAll()).thenReturn(Collections.emptyList());
-        List<UserDto> userDtoList = assertDoesNotThrow(() -> userService.getAllUsers());
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        List<UserDto> userDtoList = assertDoesNotThrow(() -> userService.getAllUsers(0, 10));
         assertTrue(userDtoList.isEmpty());
     }
 
+    @Test
+    void getUsersAfterWhenMoreUsersThenPageWithNextCursor() {
+        when(userRepository.findAllByIdGreaterThan(0L, PageRequest.of(0, 2, Sort.by("id"))))
+                .thenReturn(List.of(user1, user2));
+
+        CursorPage<UserDto> firstPage = userService.getUsersAfter("", 1);
+        assertEquals(List.of(UserMapper.toUserDto(user1)), firstPage.getItems());
+        assertEquals(new Cursor(null, 1L).encode(), firstPage.getNextCursor());
+
+        when(userRepository.findAllByIdGreaterThan(1L, PageRequest.of(0, 2, Sort.by("id"))))
+                .thenReturn(List.of(user2));
+        CursorPage<UserDto> lastPage = userService.getUsersAfter(firstPage.getNextCursor(), 1);
+        assertEquals(List.of(UserMapper.toUserDto(user2)), lastPage.getItems());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getUsersAfterWhenCursorHasPositionThenException() {
+        String bookingCursor = new Cursor(LocalDateTime.of(2030, 1, 1, 0, 0), 1L).encode();
+
+        assertThrows(InvalidOperationException.class, () -> userService.getUsersAfter(bookingCursor, 1));
+        verify(userRepository, never()).findAllByIdGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    void forEachUserWhenInvokedThenStreamAllUsers() {
+        List<UserDto> userDtos = List.of(UserMapper.toUserDto(user1), UserMapper.toUserDto(user2));
+        when(userRepository.streamAllOrderById()).thenReturn(userDtos.stream());
+        List<UserDto> actualUsers = new ArrayList<>();
+
+        userService.forEachUser(actualUsers::add);
+
+        assertEquals(userDtos, actualUsers);
+    }
+
     @Test
     void getUserWhenUserExistsThenUserDto() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
@@ -73,12 +156,23 @@ class UserServiceTest {
         assertEquals("Пользователь не найден", exception.getMessage());
     }
 
+    @Test
+    void getUserWhenRemovedBypassingServiceThenExceptionWithoutQuery() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        knownUsers.rebuild();
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> userService.getUser(10L));
+        assertEquals("Пользователь не найден", exception.getMessage());
+        verify(userRepository, never()).findById(any());
+    }
+
     @Test
     void addUserWhenValidUserDtoThenPersistUserAndReturnUserDto() {
         UserDto userDto = new UserDto(null, "test name", "test@ya.ru");
-        when(userRepository.save(any())).thenReturn(new User(3L, "test name", "test@ya.ru"));
+        when(userRepository.saveAndFlush(any())).thenReturn(new User(5L, "test name", "test@ya.ru"));
+
         UserDto actualUser = userService.addUser(userDto);
-        assertEquals(3L, actualUser.getId());
+        assertEquals(5L, actualUser.getId());
         assertEquals(userDto.getName(), actualUser.getName());
         assertEquals(userDto.getEmail(), actualUser.getEmail());
     }
@@ -86,7 +180,7 @@ class UserServiceTest {
     @Test
     void addUserWhenEmailConflictThenException() {
         UserDto userDto = new UserDto(null, "test name", "test@mail.ru");
-        when(userRepository.save(any())).thenThrow(DataIntegrityViolationException.class);
+        when(userRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
 
         EmailAlreadyExistsException exception =
                 assertThrows(EmailAlreadyExistsException.class, () -> userService.addUser(userDto));
@@ -97,7 +191,7 @@ class UserServiceTest {
     void updateUserWhenValidUserDtoWithAllNewFieldsThenUpdateUserAndReturnUserDto() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
         UserDto userDto = new UserDto(null, "test name", "test@ya.ru");
-        when(userRepository.save(any())).thenReturn(new User(1L, "test name", "test@ya.ru"));
+        when(userRepository.saveAndFlush(any())).thenReturn(new User(1L, "test name", "test@ya.ru"));
         UserDto actualUser = userService.updateUser(1L, userDto);
 
         assertEquals(user1.getId(), actualUser.getId());
@@ -109,7 +203,7 @@ class UserServiceTest {
     void updateUserWhenValidUserDtoWithNewNameThenUpdateUserAndReturnUserDto() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
         UserDto userDto = new UserDto(null, "test name", "test@mail.ru");
-        when(userRepository.save(any())).thenReturn(new User(1L, "test name", "test@mail.ru"));
+        when(userRepository.saveAndFlush(any())).thenReturn(new User(1L, "test name", "test@mail.ru"));
         UserDto actualUser = userService.updateUser(1L, userDto);
 
         assertEquals(user1.getId(), actualUser.getId());
@@ -121,7 +215,7 @@ class UserServiceTest {
     void updateUserWhenValidUserDtoWithNewEmailThenUpdateUserAndReturnUserDto() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
         UserDto userDto = new UserDto(null, "test1", "test@ya.ru");
-        when(userRepository.save(any())).thenReturn(new User(1L, "test1", "test@ya.ru"));
+        when(userRepository.saveAndFlush(any())).thenReturn(new User(1L, "test1", "test@ya.ru"));
         UserDto actualUser = userService.updateUser(1L, userDto);
 
         assertEquals(user1.getId(), actualUser.getId());
@@ -137,13 +231,13 @@ class UserServiceTest {
         EntityNotFoundException exception =
                 assertThrows(EntityNotFoundException.class, () -> userService.updateUser(3L, userDto));
         assertEquals("Пользователь не найден", exception.getMessage());
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void updateUserWhenEmailConflictThenException() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepository.save(any())).thenThrow(DataIntegrityViolationException.class);
+        when(userRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
         UserDto userDto = new UserDto(null, "test1", "test@mail.ru");
 
         EmailAlreadyExistsException exception =
@@ -154,8 +248,14 @@ class UserServiceTest {
     @Test
     void deleteUserWhenUserExistsThenDeleteUser() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(bookingRepository.findItemIdsByParticipantId(1L)).thenReturn(List.of(3, 4));
         userService.deleteUser(1L);
         verify(userRepository).deleteById(1L);
+        verify(bookingIndex).evictAll(List.of(3, 4));
+        verify(searchEngine).onOwnerRemoved(1L);
+        verify(searchCache).onCatalogChanged();
+        verify(itemViewCache).evictAll();
+        assertFalse(knownUsers.mightExist(1L));
     }
 
     @Test